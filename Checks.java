@@ -0,0 +1,512 @@
+import RelationalDatabase.*;
+
+import java.util.*;
+
+/**
+ * Deterministic checks of the analysis, run with `java Checks` after compiling
+ * it with the package. Every check prints it's name and result, and the exit
+ * status is the number of checks that failed.<br>
+ * The random schemas come from fixed seeds, and are checked against brute
+ * force versions of the chase, the closure and the projection that work on
+ * attribute names, so they share no code with the package.
+ */
+class Checks {
+	private static int failed = 0;
+
+	public static void main(String[] args){
+		crossSchemaChecks();
+		editChecks();
+		regressionChecks();
+		chaseChecks();
+		dependencyPreservationChecks();
+		bcnfChecks();
+		synthesisChecks();
+		parallelChecks();
+
+		System.out.println((failed == 0) ? "All checks passed" : failed + " checks failed");
+		System.exit(failed);
+	}
+
+	/**
+	* FDs of relations parsed from different schemas, whose attribute ids differ.
+	*/
+	private static void crossSchemaChecks(){
+		// A is in both schemas but B shifts the id of C in the first one
+		Relation R1 = new Relation("R(A,B,C)", 3, "A->C");
+		Relation R2 = new Relation("R(A,C)", 2, "A->C");
+		ArrayList<FunctionalDependency> E = R1.getFunctionalDependencies();
+		ArrayList<FunctionalDependency> F = R2.getFunctionalDependencies();
+		check("CoverDiff.equivalent across schemas", CoverDiff.equivalent(E, F, false));
+		check("CoverDiff.equivalent across schemas in parallel", CoverDiff.equivalent(E, F, true));
+		check("CoverDiff.compare across schemas", CoverDiff.compare(E, F).isEquivalent());
+		check("Closure.equivalentClosures across schemas", Closure.equivalentClosures(E, F));
+
+		Relation R3 = new Relation("R(A,C)", 2, "C->A");
+		CoverDiff diff = CoverDiff.compare(E, R3.getFunctionalDependencies());
+		check("CoverDiff.compare reports A->C not implied by C->A", diff.getNotImpliedByE().size() == 1 && diff.getNotImpliedByF().size() == 1 && diff.getNotImpliedByF().get(0) == E.get(0));
+		check("CoverDiff.equivalent of A->C and C->A", !CoverDiff.equivalent(E, R3.getFunctionalDependencies(), false));
+
+		// Over the ids of R, B of R(A,C,B) is C, B->C of R(B,C) is A->B and D of R(A,D) is B
+		Relation R4 = new Relation("R(A,B,C)", 3, "A->B");
+		ArrayList<FunctionalDependency> foreign = new ArrayList<FunctionalDependency>();
+		foreign.addAll(new Relation("R(A,C,B)", 3, "A->B").getFunctionalDependencies());
+		foreign.addAll(new Relation("R(B,C)", 2, "B->C").getFunctionalDependencies());
+		foreign.addAll(new Relation("R(A,D)", 2, "A->D").getFunctionalDependencies());
+		foreign.addAll(new Relation("R(A,B,D)", 3, "A,D->B,D").getFunctionalDependencies());
+		boolean[] implied = new boolean[foreign.size()];
+		for(int i=0; i<foreign.size(); i++){
+			implied[i] = R4.implies(foreign.get(i));
+		}
+		boolean[] expected = new boolean[]{true, false, false, true};
+		check("Relation.implies across schemas", Arrays.equals(implied, expected));
+		check("Relation.impliesAll across schemas", Arrays.equals(R4.impliesAll(foreign), expected) && Arrays.equals(R4.impliesAll(foreign, true), expected));
+	}
+
+	/**
+	* Candidate keys kept up to date by edits against a relation parsed with the edited FDs.
+	*/
+	private static void editChecks(){
+		Relation R = new Relation("R(A,B,C,D,E)", 5, "A->B;B->C");
+		R.getCandidateKeys();
+		R.addFunctionalDependency("C->D");
+		R.addFunctionalDependency("D->E");
+		check("Candidate keys after adding FDs", R.getCandidateKeys().equals(new Relation("R(A,B,C,D,E)", 5, "A->B;B->C;C->D;D->E").getCandidateKeys()));
+		R.addFunctionalDependency("E->A");
+		check("Candidate keys after adding a cycle", R.getCandidateKeys().equals(new Relation("R(A,B,C,D,E)", 5, "A->B;B->C;C->D;D->E;E->A").getCandidateKeys()));
+		R.removeFunctionalDependency("B->C");
+		check("Candidate keys after removing an FD", R.getCandidateKeys().equals(new Relation("R(A,B,C,D,E)", 5, "A->B;C->D;D->E;E->A").getCandidateKeys()));
+	}
+
+	/**
+	* Schemas the analysis used to throw on.
+	*/
+	private static void regressionChecks(){
+		Relation R1 = new Relation("R(A,B,C,D)", 4, "A->B,C;B->D");
+		Relation R2 = new Relation("R(Ax,Bx,Cx,Dx)", 4, "Ax->Bx,Cx;Bx->Dx");
+		check("Minimal cover with multi character names", R2.getMinimalCover().toString().replace("x", "").equals(R1.getMinimalCover().toString()));
+
+		// D->G is taken by the first 2NF relation and must not make a relation of it's own
+		Relation R3 = new Relation("R(A,B,C,D,E,F,G,H)", 8, "C,G,D->B,E;F->H,A;D->G;H,B,F->G");
+		boolean inside = true;
+		for(Relation r : Decompositions.decomposeInto2NFScheme(R3)){
+			for(FunctionalDependency f : r.getFunctionalDependencies()){
+				inside &= r.getAttributes().containsAll(f.getLeftSideAttributes()) && r.getAttributes().containsAll(f.getRightSideAttributes());
+			}
+			r.getMinimalCover();
+		}
+		check("2NF relations hold the attributes of their FDs", inside);
+
+		// The LHS of A,B,C,D->E is larger than the bound of the projection
+		Relation R4 = new Relation("R(A,B,C,D,E)", 5, "A,B,C,D->E");
+		BCNFDecomposition split = R4.splitIntoBCNFRelations();
+		check("BCNF fragment keeps an FD with a LHS over the bound", split.size() == 1 && !split.isTruncated(0) && split.getRelation(0).implies(R4.getFunctionalDependencies().get(0)));
+
+		// The same FDs over different schemas are not equivalent schemas
+		Relation R5 = new Relation("R(A,B,C)", 3, "A->B");
+		check("Cover fingerprint of R(A,B,C) and R(A,B,C,D) with A->B", !R5.getCoverFingerprint().equals(new Relation("R(A,B,C,D)", 4, "A->B").getCoverFingerprint()));
+		check("Cover fingerprint of A->B;A->B,A and A->B", R5.getCoverFingerprint().equals(new Relation("R(A,B,C)", 3, "A->B;A->B,A").getCoverFingerprint()));
+	}
+
+	/**
+	* The chase of LosslessJoin against a brute force chase, on random fragments.
+	*/
+	private static void chaseChecks(){
+		Relation R = new Relation("R(A,B,C)", 3, "A->B");
+		check("Chase of R(A,B), R(A,C) with A->B", LosslessJoin.checkFragments(R, fragments(R, "A,B", "A,C")).isLossless());
+		check("Chase of R(A,B), R(B,C) with A->B", !LosslessJoin.checkFragments(R, fragments(R, "A,B", "B,C")).isLossless());
+		// A,C is A,B over the ids of a schema of it's own
+		ArrayList<Relation> parsed = new ArrayList<Relation>(Arrays.asList(new Relation("R(A,B)", 2, ""), new Relation("R(A,C)", 2, "")));
+		check("Chase of parsed R(A,B), R(A,C) with A->B", R.checkLosslessJoin(parsed).isLossless());
+		parsed.set(0, new Relation("R(A,D)", 2, ""));
+		boolean thrown = false;
+		try{
+			R.checkLosslessJoin(parsed);
+		} catch(IllegalArgumentException e){
+			thrown = true;
+		}
+		check("Chase of parsed R(A,D), R(A,C) rejects D", thrown);
+
+		String failing = null;
+		int lossless = 0;
+		for(long seed=0; seed<300; seed++){
+			Random random = new Random(seed);
+			String[] schema = generate(3 + random.nextInt(7), 0.3 + random.nextDouble() * 1.5, random);
+			Relation r = new Relation(schema[0], (schema[0].length() - 2) / 2, schema[1]);
+			ArrayList<AttributeSet> fragments = randomFragments(r, random);
+			boolean expected = chase(r, fragments);
+			if(expected){
+				lossless++;
+			}
+			if(LosslessJoin.checkFragments(r, fragments).isLossless() != expected && failing == null){
+				failing = schema[0] + " " + schema[1] + " " + fragments;
+			}
+		}
+		check("Chase of 300 random decompositions, " + lossless + " lossless" + ((failing == null) ? "" : ", wrong on " + failing), failing == null);
+	}
+
+	/**
+	* The lost FDs of DependencyPreservation against the closure of the
+	* projections of the FDs onto the fragments, on random fragments.
+	*/
+	private static void dependencyPreservationChecks(){
+		// B,C and A,C are A,B and A,C over the ids of schemas of their own
+		Relation R = new Relation("R(A,B,C)", 3, "A->B;B->C");
+		ArrayList<Relation> parsed = new ArrayList<Relation>(Arrays.asList(new Relation("R(B,C)", 2, ""), new Relation("R(A,C)", 2, "")));
+		check("Dependency preservation of parsed R(B,C), R(A,C) loses A->B", R.checkDependencyPreservation(parsed).getLostFunctionalDependencies().toString().equals("[{A} -> {B}]"));
+
+		String failing = null;
+		int lost = 0;
+		for(long seed=0; seed<300; seed++){
+			Random random = new Random(seed);
+			String[] schema = generate(3 + random.nextInt(6), 0.3 + random.nextDouble() * 1.5, random);
+			Relation r = new Relation(schema[0], (schema[0].length() - 2) / 2, schema[1]);
+			ArrayList<AttributeSet> fragments = randomFragments(r, random);
+			ArrayList<Dependency> funcDeps = dependencies(r.getFunctionalDependencies());
+			// Every X inside a fragment S gives X->(X+ n S)
+			ArrayList<Dependency> projected = new ArrayList<Dependency>();
+			for(AttributeSet fragment : fragments){
+				TreeSet<String> inside = names(fragment.toAttributeList(r.getDictionary()));
+				for(TreeSet<String> left : subsets(inside)){
+					TreeSet<String> right = closure(left, funcDeps);
+					right.retainAll(inside);
+					projected.add(new Dependency(left, right));
+				}
+			}
+			HashSet<FunctionalDependency> reported = new HashSet<FunctionalDependency>(DependencyPreservation.checkFragments(r, fragments).getLostFunctionalDependencies());
+			lost += reported.size();
+			for(FunctionalDependency f : r.getFunctionalDependencies()){
+				boolean preserved = closure(names(f.getLeftSideAttributes()), projected).containsAll(names(f.getRightSideAttributes()));
+				if(preserved == reported.contains(f) && failing == null){
+					failing = schema[0] + " " + schema[1] + " " + fragments + " " + f;
+				}
+			}
+		}
+		check("Dependency preservation of 300 random decompositions, " + lost + " FDs lost" + ((failing == null) ? "" : ", wrong on " + failing), failing == null);
+	}
+
+	/**
+	* The fragments of BCNFDecomposition are lossless, cover the relation and
+	* have no subset whose closure inside the fragment is neither itself nor the
+	* fragment, including the fragments whose search stopped at the bound.
+	*/
+	private static void bcnfChecks(){
+		String failing = null;
+		int fragments = 0;
+		for(long seed=0; seed<200; seed++){
+			Random random = new Random(seed);
+			String[] schema = generate(3 + random.nextInt(7), 0.3 + random.nextDouble() * 1.5, random);
+			Relation r = new Relation(schema[0], (schema[0].length() - 2) / 2, schema[1]);
+			ArrayList<Dependency> funcDeps = dependencies(r.getFunctionalDependencies());
+			BCNFDecomposition split = r.splitIntoBCNFRelations();
+			ArrayList<AttributeSet> parts = new ArrayList<AttributeSet>();
+			TreeSet<String> covered = new TreeSet<String>();
+			boolean ok = true;
+			for(int i=0; i<split.size(); i++){
+				parts.add(split.getFragment(i));
+				TreeSet<String> inside = names(split.getAttributes(i));
+				covered.addAll(inside);
+				for(TreeSet<String> left : subsets(inside)){
+					TreeSet<String> closure = closure(left, funcDeps);
+					closure.retainAll(inside);
+					ok &= closure.equals(left) || closure.equals(inside);
+				}
+			}
+			fragments += split.size();
+			ok &= covered.equals(names(r.getAttributes())) && chase(r, parts);
+			if(!ok && failing == null){
+				failing = schema[0] + " " + schema[1] + " " + split;
+			}
+		}
+		check("BCNF split of 200 random relations into " + fragments + " fragments" + ((failing == null) ? "" : ", wrong on " + failing), failing == null);
+	}
+
+	/**
+	* The FDs of the schemas of ThreeNFSynthesis have the closures of the FDs of
+	* the relation inside every schema.
+	*/
+	private static void synthesisChecks(){
+		// B->A,D only partly fits R(A,B,C) and A->B,C only partly fits R(A,B,D)
+		int exactProjectionSize = BCNFDecomposition.getExactProjectionSize();
+		for(int size : new int[]{0, exactProjectionSize}){
+			BCNFDecomposition.setExactProjectionSize(size);
+			Relation R = new Relation("R(A,B,C,D)", 4, "A->B,C;B->A,D");
+			ThreeNFSynthesis synthesis = R.synthesize3NFRelations();
+			boolean ok = synthesis.size() == 2;
+			for(Relation r : synthesis.getRelations()){
+				ok &= r.getCandidateKeys().toString().equals("[[A], [B]]") && r.implies(R.getFunctionalDependencies().get(0)) == r.getAttributes().contains(R.getAttribute("C"));
+			}
+			check("3NF schemas keep the FDs that partly fit them" + ((size == 0) ? " when cut from the cover" : ""), ok);
+		}
+		BCNFDecomposition.setExactProjectionSize(exactProjectionSize);
+
+		String failing = null;
+		int schemas = 0;
+		for(long seed=0; seed<200; seed++){
+			Random random = new Random(seed);
+			String[] schema = generate(3 + random.nextInt(7), 0.3 + random.nextDouble() * 1.5, random);
+			Relation r = new Relation(schema[0], (schema[0].length() - 2) / 2, schema[1]);
+			ArrayList<Dependency> funcDeps = dependencies(r.getFunctionalDependencies());
+			ThreeNFSynthesis synthesis = r.synthesize3NFRelations();
+			boolean ok = true;
+			for(int i=0; i<synthesis.size(); i++){
+				TreeSet<String> inside = names(synthesis.getAttributes(i));
+				ArrayList<Dependency> projected = dependencies(synthesis.getFunctionalDependencies(i));
+				for(TreeSet<String> left : subsets(inside)){
+					TreeSet<String> expected = closure(left, funcDeps);
+					expected.retainAll(inside);
+					ok &= closure(left, projected).equals(expected);
+				}
+			}
+			schemas += synthesis.size();
+			if(!ok && failing == null){
+				failing = schema[0] + " " + schema[1] + " " + synthesis;
+			}
+		}
+		check("3NF synthesis of 200 random relations into " + schemas + " schemas" + ((failing == null) ? "" : ", wrong on " + failing), failing == null);
+	}
+
+	/**
+	* normalizeRelationInParallel gives the relations of normalizeRelation, in the same order.
+	*/
+	private static void parallelChecks(){
+		String failing = null;
+		java.io.PrintStream out = System.out;
+		// Small relations only split their work with low thresholds
+		int redundancyThreshold = RedundancyEliminator.getParallelThreshold();
+		int closureThreshold = ClosureEnumerator.getParallelThreshold();
+		RedundancyEliminator.setParallelThreshold(1);
+		ClosureEnumerator.setParallelThreshold(2);
+		for(long seed=0; seed<200; seed++){
+			Random random = new Random(seed);
+			String[] schema = generate(3 + random.nextInt(8), 0.3 + random.nextDouble() * 1.5, random);
+			int noOfAttr = (schema[0].length() - 2) / 2;
+			Relation sequential = new Relation(schema[0], noOfAttr, schema[1]);
+			// normalizeRelation prints every level
+			System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+			try{
+				sequential.normalizeRelation();
+			} finally {
+				System.setOut(out);
+			}
+			Relation parallel = new Relation(schema[0], noOfAttr, schema[1]);
+			parallel.normalizeRelationInParallel(1 + (int)(seed % 4));
+			if(!describe(sequential).equals(describe(parallel)) && failing == null){
+				failing = schema[0] + " " + schema[1];
+			}
+		}
+		RedundancyEliminator.setParallelThreshold(redundancyThreshold);
+		ClosureEnumerator.setParallelThreshold(closureThreshold);
+		check("Parallel normalization of 200 random relations" + ((failing == null) ? "" : ", differs on " + failing), failing == null);
+	}
+
+	///////////////////////// Brute Force Helpers /////////////////////////
+	/**
+	* An FD over attribute names.
+	*/
+	private static final class Dependency {
+		private TreeSet<String> left;
+		private TreeSet<String> right;
+
+		private Dependency(TreeSet<String> left, TreeSet<String> right){
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	/**
+	* Generates a relation R(A,B,...) with noOfAttr * density random FDs, each
+	* with 1 to 3 attributes on the LHS and 1 or 2 on the RHS.
+	*/
+	private static String[] generate(int noOfAttr, double density, Random random){
+		StringBuilder relation = new StringBuilder("R(");
+		ArrayList<String> order = new ArrayList<String>();
+		for(int i=0; i<noOfAttr; i++){
+			order.add(String.valueOf((char)('A' + i)));
+			relation.append(order.get(i) + ((i < noOfAttr - 1) ? "," : ")"));
+		}
+		StringBuilder funcDeps = new StringBuilder();
+		int noOfFDs = Math.max(1, (int)Math.round(noOfAttr * density));
+		for(int f=0; f<noOfFDs; f++){
+			Collections.shuffle(order, random);
+			int left = 1 + random.nextInt(Math.min(3, noOfAttr - 1));
+			int right = 1 + random.nextInt(Math.min(2, noOfAttr - left));
+			if(f > 0){
+				funcDeps.append(";");
+			}
+			funcDeps.append(String.join(",", order.subList(0, left)) + "->" + String.join(",", order.subList(left, left + right)));
+		}
+		return new String[]{relation.toString(), funcDeps.toString()};
+	}
+
+	/**
+	* Picks 2 to 4 random fragments, with one more holding the attributes none of them has.
+	*/
+	private static ArrayList<AttributeSet> randomFragments(Relation r, Random random){
+		ArrayList<AttributeSet> fragments = new ArrayList<AttributeSet>();
+		AttributeSet rest = new AttributeSet(r.getAttributeSet());
+		int noOfFragments = 2 + random.nextInt(3);
+		for(int i=0; i<noOfFragments; i++){
+			AttributeSet fragment = new AttributeSet();
+			for(Attribute a : r.getAttributes()){
+				if(random.nextBoolean()){
+					fragment.add(a.getId());
+				}
+			}
+			rest.removeAll(fragment);
+			fragments.add(fragment);
+		}
+		if(!rest.isEmpty()){
+			fragments.add(rest);
+		}
+		return fragments;
+	}
+
+	/**
+	* The fragments of a relation given as comma separated attribute names.
+	*/
+	private static ArrayList<AttributeSet> fragments(Relation r, String... fragments){
+		ArrayList<AttributeSet> sets = new ArrayList<AttributeSet>();
+		for(String fragment : fragments){
+			AttributeSet set = new AttributeSet();
+			for(String name : fragment.split(",")){
+				set.add(r.getAttribute(name).getId());
+			}
+			sets.add(set);
+		}
+		return sets;
+	}
+
+	/**
+	* Chases the tableau of the fragments, one row per fragment, until no FD
+	* equates two symbols. The join is lossless when a row is all distinguished.
+	*/
+	private static boolean chase(Relation r, List<AttributeSet> fragments){
+		ArrayList<Attribute> attributes = r.getAttributes();
+		int n = attributes.size();
+		int[][] tableau = new int[fragments.size()][n];
+		for(int i=0; i<fragments.size(); i++){
+			for(int j=0; j<n; j++){
+				// 0 is the distinguished symbol, every other cell starts with a symbol of it's own
+				tableau[i][j] = fragments.get(i).contains(attributes.get(j)) ? 0 : i * n + j + 1;
+			}
+		}
+		boolean changed = true;
+		while(changed){
+			changed = false;
+			for(FunctionalDependency f : r.getFunctionalDependencies()){
+				for(int[] first : tableau){
+					for(int[] second : tableau){
+						boolean agree = true;
+						for(Attribute a : f.getLeftSideAttributes()){
+							agree &= first[attributes.indexOf(a)] == second[attributes.indexOf(a)];
+						}
+						if(!agree){
+							continue;
+						}
+						for(Attribute a : f.getRightSideAttributes()){
+							int j = attributes.indexOf(a);
+							if(first[j] != second[j]){
+								int keep = Math.min(first[j], second[j]);
+								int drop = Math.max(first[j], second[j]);
+								for(int[] row : tableau){
+									if(row[j] == drop){
+										row[j] = keep;
+									}
+								}
+								changed = true;
+							}
+						}
+					}
+				}
+			}
+		}
+		for(int[] row : tableau){
+			boolean distinguished = true;
+			for(int symbol : row){
+				distinguished &= symbol == 0;
+			}
+			if(distinguished){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	* The closure of a set of names under FDs over names.
+	*/
+	private static TreeSet<String> closure(Set<String> attributes, List<Dependency> funcDeps){
+		TreeSet<String> closure = new TreeSet<String>(attributes);
+		boolean changed = true;
+		while(changed){
+			changed = false;
+			for(Dependency f : funcDeps){
+				if(closure.containsAll(f.left)){
+					changed |= closure.addAll(f.right);
+				}
+			}
+		}
+		return closure;
+	}
+
+	/**
+	* The FDs of a relation over attribute names.
+	*/
+	private static ArrayList<Dependency> dependencies(List<FunctionalDependency> funcDeps){
+		ArrayList<Dependency> dependencies = new ArrayList<Dependency>();
+		for(FunctionalDependency f : funcDeps){
+			dependencies.add(new Dependency(names(f.getLeftSideAttributes()), names(f.getRightSideAttributes())));
+		}
+		return dependencies;
+	}
+
+	/**
+	* Every subset of a set of names.
+	*/
+	private static ArrayList<TreeSet<String>> subsets(TreeSet<String> names){
+		ArrayList<String> list = new ArrayList<String>(names);
+		ArrayList<TreeSet<String>> subsets = new ArrayList<TreeSet<String>>();
+		for(int mask=0; mask<(1 << list.size()); mask++){
+			TreeSet<String> subset = new TreeSet<String>();
+			for(int i=0; i<list.size(); i++){
+				if((mask >> i & 1) != 0){
+					subset.add(list.get(i));
+				}
+			}
+			subsets.add(subset);
+		}
+		return subsets;
+	}
+
+	private static TreeSet<String> names(Collection<Attribute> attributes){
+		TreeSet<String> names = new TreeSet<String>();
+		for(Attribute a : attributes){
+			names.add(a.getName());
+		}
+		return names;
+	}
+
+	/**
+	* The relations of every level of the normalization with their FDs.
+	*/
+	private static String describe(Relation r){
+		StringBuilder s = new StringBuilder();
+		for(ArrayList<Relation> level : Arrays.asList(r.get2NFRelations(), r.get3NFRelations(), r.getBCNFRelations())){
+			s.append(level == null ? "null" : "");
+			if(level != null){
+				for(Relation fragment : level){
+					s.append(fragment + " " + fragment.getFunctionalDependencies() + " " + fragment.getNormalForm() + "|");
+				}
+			}
+			s.append("\n");
+		}
+		return s.toString();
+	}
+
+	private static void check(String name, boolean ok){
+		System.out.println((ok ? "PASS " : "FAIL ") + name);
+		if(!ok){
+			failed++;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The AnalysisAbortedException is thrown when the {@link AnalysisContext}
+ * of a relation runs out of budget or is cancelled.<br>
+ * It carries the stage that was interrupted and what that stage had found,
+ * eg: the candidate keys found so far. The stage and partial result are
+ * replaced as the exception passes through enclosing stages, so they
+ * describe the outermost stage that keeps track of it's progress.
+ * The property being computed is left to be computed again on the next request.
+ */
+public class AnalysisAbortedException extends RuntimeException{
+	///////////////////////// Class Members /////////////////////////
+	private static final long serialVersionUID = 1L;
+	/**
+	* The reasons an analysis is aborted.
+	*/
+	public enum Reason{
+		/**
+		* The AnalysisContext was cancelled.
+		*/
+		CANCELLED,
+		/**
+		* The time budget ran out.
+		*/
+		TIME_BUDGET,
+		/**
+		* The budget of closures ran out.
+		*/
+		CLOSURE_BUDGET
+	}
+
+	/**
+	* Why the analysis was aborted.
+	*/
+	private Reason reason;
+	/**
+	* The number of closures computed before the analysis was aborted.
+	*/
+	private long closuresComputed;
+	/**
+	* The stage that was interrupted, null until a stage reports it's progress.
+	*/
+	private String stage;
+	/**
+	* What the interrupted stage had found.
+	*/
+	private List<?> partialResult;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates the exception with no partial result yet.
+	* @param reason Why the analysis was aborted.
+	* @param closuresComputed The number of closures computed so far.
+	*/
+	AnalysisAbortedException(Reason reason, long closuresComputed){
+		super("Analysis aborted: " + reason);
+		this.reason = reason;
+		this.closuresComputed = closuresComputed;
+		this.stage = null;
+		this.partialResult = Collections.emptyList();
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Records the stage that was interrupted and what it had found.
+	* @param stage The name of the stage, eg: "candidate keys".
+	* @param partialResult A copy of what the stage had found.
+	* @return This exception, to be rethrown.
+	*/
+	AnalysisAbortedException withPartialResult(String stage, List<?> partialResult){
+		this.stage = stage;
+		this.partialResult = partialResult;
+		return this;
+	}
+
+	public String getMessage(){
+		if(this.stage == null){
+			return super.getMessage();
+		}
+		return super.getMessage() + " while computing the " + this.stage + " (" + this.partialResult.size() + " found)";
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public Reason getReason(){
+		return this.reason;
+	}
+	public long getClosuresComputed(){
+		return this.closuresComputed;
+	}
+	public String getStage(){
+		return this.stage;
+	}
+	public List<?> getPartialResult(){
+		return this.partialResult;
+	}
+}
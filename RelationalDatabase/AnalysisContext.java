@@ -0,0 +1,102 @@
+package RelationalDatabase;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The AnalysisContext bounds the work done to analyse a relation with a time
+ * budget, a budget of closures and a cancellation flag.<br>
+ * Every ClosureEngine of a relation with a context counts it's closures
+ * against the context, and the key, minimal cover and decomposition loops
+ * call {@link #checkpoint()} between steps. Once a budget runs out or the
+ * context is cancelled, the next check throws an
+ * {@link AnalysisAbortedException} carrying what was found so far.<br>
+ * A context is thread safe and is shared by every relation decomposed from
+ * the relation it was given to, so one budget covers the whole analysis.
+ */
+public class AnalysisContext{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The time budget is checked once every this many closures.
+	*/
+	private static final int CLOSURES_PER_CLOCK_CHECK = 16;
+	/**
+	* The System.nanoTime() after which the analysis is aborted, Long.MAX_VALUE for none.
+	*/
+	private final long deadline;
+	/**
+	* The number of closures after which the analysis is aborted, Long.MAX_VALUE for none.
+	*/
+	private final long closureBudget;
+	/**
+	* The number of closures computed so far.
+	*/
+	private final AtomicLong closures;
+	/**
+	* Whether the analysis has been cancelled.
+	*/
+	private volatile boolean cancelled;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates a context with the given budgets, starting the clock now.
+	* @param timeBudgetMillis The milliseconds the analysis may take, 0 or less for no limit.
+	* @param closureBudget The number of closures the analysis may compute, 0 or less for no limit.
+	*/
+	public AnalysisContext(long timeBudgetMillis, long closureBudget){
+		this.deadline = (timeBudgetMillis > 0) ? System.nanoTime() + timeBudgetMillis * 1000000L : Long.MAX_VALUE;
+		this.closureBudget = (closureBudget > 0) ? closureBudget : Long.MAX_VALUE;
+		this.closures = new AtomicLong();
+		this.cancelled = false;
+	}
+
+	/**
+	* Creates a context with no budget that can only be cancelled.
+	*/
+	public AnalysisContext(){
+		this(0, 0);
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Asks the analysis to stop at it's next check. May be called from any thread.
+	*/
+	public void cancel(){
+		this.cancelled = true;
+	}
+
+	/**
+	* Throws if the analysis is cancelled or out of time.
+	* @throws AnalysisAbortedException when the analysis must stop.
+	*/
+	public void checkpoint(){
+		if(this.cancelled){
+			throw new AnalysisAbortedException(AnalysisAbortedException.Reason.CANCELLED, this.closures.get());
+		}
+		if(this.deadline != Long.MAX_VALUE && System.nanoTime() - this.deadline > 0){
+			throw new AnalysisAbortedException(AnalysisAbortedException.Reason.TIME_BUDGET, this.closures.get());
+		}
+	}
+
+	/**
+	* Counts a closure against the budget, throwing if the analysis must stop.
+	* The clock is only read every few closures.
+	* @throws AnalysisAbortedException when the analysis must stop.
+	*/
+	void closureComputed(){
+		long count = this.closures.incrementAndGet();
+		if(count > this.closureBudget){
+			throw new AnalysisAbortedException(AnalysisAbortedException.Reason.CLOSURE_BUDGET, count - 1);
+		}
+		if(this.cancelled || count % CLOSURES_PER_CLOCK_CHECK == 0){
+			this.checkpoint();
+		}
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public boolean isCancelled(){
+		return this.cancelled;
+	}
+	public long getClosuresComputed(){
+		return this.closures.get();
+	}
+}
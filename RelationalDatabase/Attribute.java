@@ -12,6 +12,15 @@ public class Attribute{
  	* The name of the attribute used in the Relation.
  	*/
 	private String name;
+	/**
+ 	* The position of the attribute in the sorted attribute list of the schema,
+ 	* used as it's bit in an AttributeSet.
+ 	*/
+	private int id;
+	/**
+ 	* The dictionary of the schema that interned the attribute.
+ 	*/
+	private AttributeDictionary dictionary;
 	
 	///////////////////////// Class Constructors /////////////////////////
 	/**
@@ -20,6 +29,8 @@ public class Attribute{
 	*/
 	public Attribute(String name){
 		this.name = name;
+		this.id = -1;
+		this.dictionary = null;
 	}
 
 	///////////////////////// Class Members /////////////////////////
@@ -30,6 +41,13 @@ public class Attribute{
 		Attribute a = (Attribute)o;
 		return this.name.equals(a.getName());
 	}
+
+	/**
+	* <p>Hashes the name so equal Attributes hash alike.</p>
+	*/
+	public int hashCode(){
+		return this.name.hashCode();
+	}
 	
 	/**
 	* <p>Returns the Attibute's name back.</p>
@@ -46,4 +64,36 @@ public class Attribute{
 	public String getName(){
 		return this.name;
 	}
+
+	/**
+	* <p>Fetches the id of the Attribute within it's schema.</p>
+	* @return the id of the Attribute
+	*/
+	public int getId(){
+		return this.id;
+	}
+
+	/**
+	* <p>Sets the id of the Attribute within it's schema.</p>
+	* @param id the position of the Attribute in the schema
+	*/
+	void setId(int id){
+		this.id = id;
+	}
+
+	/**
+	* <p>Fetches the dictionary of the schema the Attribute belongs to.</p>
+	* @return the AttributeDictionary or null if the Attribute was not interned
+	*/
+	public AttributeDictionary getDictionary(){
+		return this.dictionary;
+	}
+
+	/**
+	* <p>Sets the dictionary of the schema the Attribute belongs to.</p>
+	* @param dictionary the AttributeDictionary that interned the Attribute
+	*/
+	void setDictionary(AttributeDictionary dictionary){
+		this.dictionary = dictionary;
+	}
 }
\ No newline at end of file
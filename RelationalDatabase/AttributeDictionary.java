@@ -0,0 +1,238 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The AttributeDictionary interns the Attributes of a schema and gives each
+ * one a stable, dense integer id.<br>
+ * One dictionary is created for the input relation and is shared by every
+ * relation decomposed from it, so the same name always maps to the same
+ * Attribute object and the same bit of an AttributeSet.
+ */
+public final class AttributeDictionary{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The Attributes of the schema by their name.
+	*/
+	private HashMap<String, Attribute> byName;
+	/**
+	* The Attributes of the schema by their id.
+	*/
+	private ArrayList<Attribute> byId;
+	/**
+	* The closure cache of the schema, created on first use.
+	*/
+	private ClosureCache closureCache;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates an empty dictionary.
+	*/
+	public AttributeDictionary(){
+		this.byName = new HashMap<String, Attribute>();
+		this.byId = new ArrayList<Attribute>();
+		this.closureCache = null;
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Returns the Attribute with the given name, creating it with the next free id if needed.
+	* @param name The name of the Attribute.
+	* @return The interned Attribute.
+	*/
+	public Attribute intern(String name){
+		Attribute a = this.byName.get(name);
+		if(a == null){
+			a = new Attribute(name);
+			a.setId(this.byId.size());
+			a.setDictionary(this);
+			this.byName.put(name, a);
+			this.byId.add(a);
+		}
+		return a;
+	}
+
+	/**
+	* Looks up an Attribute by it's name.
+	* @param name The name of the Attribute.
+	* @return The Attribute or null if the name is not in the schema.
+	*/
+	public Attribute getAttribute(String name){
+		return this.byName.get(name);
+	}
+
+	/**
+	* Looks up an Attribute by it's id.
+	* @param id The id of the Attribute.
+	* @return The Attribute.
+	*/
+	public Attribute getAttribute(int id){
+		return this.byId.get(id);
+	}
+
+	/**
+	* Looks up the id of an Attribute by it's name.
+	* @param name The name of the Attribute.
+	* @return The id or -1 if the name is not in the schema.
+	*/
+	public int getId(String name){
+		Attribute a = this.byName.get(name);
+		return (a == null) ? -1 : a.getId();
+	}
+
+	/**
+	* Returns the number of Attributes in the dictionary.
+	* @return An integer
+	*/
+	public int size(){
+		return this.byId.size();
+	}
+
+	/**
+	* Returns the closure cache shared by every relation of the schema, which
+	* is the cache of the JVM when {@link ClosureCache#setSharedCacheEnabled(boolean)} is on.
+	* @return A ClosureCache
+	*/
+	public synchronized ClosureCache getClosureCache(){
+		if(this.closureCache == null){
+			this.closureCache = ClosureCache.forRelation();
+		}
+		return this.closureCache;
+	}
+
+	/**
+	* Checks if every Attribute of the list was interned by this dictionary.
+	* @param attributes The Attributes to check.
+	* @return A boolean value
+	*/
+	public boolean hasInterned(Collection<Attribute> attributes){
+		for(Attribute a : attributes){
+			if(a.getDictionary() != this){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* Checks if every Attribute of the FDs was interned by this dictionary.
+	* @param funcDeps The FDs to check.
+	* @return A boolean value
+	*/
+	public boolean hasInternedFunctionalDependencies(Collection<FunctionalDependency> funcDeps){
+		for(FunctionalDependency f : funcDeps){
+			if(!this.hasInterned(f.getLeftSideAttributes()) || !this.hasInterned(f.getRightSideAttributes())){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* Interns the Attributes of the list by their name.
+	* @param attributes Attributes of any schema.
+	* @return The Attributes of this dictionary with the same names, in the same order.
+	*/
+	public ArrayList<Attribute> internAll(Collection<Attribute> attributes){
+		ArrayList<Attribute> interned = new ArrayList<Attribute>();
+		for(Attribute a : attributes){
+			interned.add(this.intern(a.getName()));
+		}
+		return interned;
+	}
+
+	/**
+	* Looks up the Attributes of the list by their name, without interning them.
+	* @param attributes Attributes of any schema.
+	* @return The ids of the Attributes of this dictionary with the same names,
+	* or null when a name is not in the schema.
+	*/
+	public AttributeSet lookupAll(Collection<Attribute> attributes){
+		if(this.hasInterned(attributes)){
+			return new AttributeSet(attributes);
+		}
+		AttributeSet ids = new AttributeSet();
+		for(Attribute a : attributes){
+			int id = this.getId(a.getName());
+			if(id < 0){
+				return null;
+			}
+			ids.add(id);
+		}
+		return ids;
+	}
+
+	/**
+	* Interns the Attributes of the FDs by their name, so the FDs of
+	* different schemas can be compared over the ids of this dictionary.
+	* @param funcDeps FDs of any schema.
+	* @return New FDs over the Attributes of this dictionary, in the same order.
+	*/
+	public ArrayList<FunctionalDependency> internFunctionalDependencies(Collection<FunctionalDependency> funcDeps){
+		ArrayList<FunctionalDependency> interned = new ArrayList<FunctionalDependency>();
+		for(FunctionalDependency f : funcDeps){
+			interned.add(new FunctionalDependency(f.getRelation(), this.internAll(f.getLeftSideAttributes()), this.internAll(f.getRightSideAttributes()), f.getNormalForm()));
+		}
+		return interned;
+	}
+
+	/**
+	* Returns the dictionary shared by the given Attributes and the Attributes of the FDs.
+	* @param attributes Attributes of a schema.
+	* @param funcDeps FDs of a schema.
+	* @return The dictionary that interned all of them, or null when they
+	* come from more than one schema or some were never interned.
+	*/
+	public static AttributeDictionary shared(Collection<Attribute> attributes, Collection<FunctionalDependency> funcDeps){
+		AttributeDictionary dictionary = AttributeDictionary.first(attributes, funcDeps);
+		if(dictionary == null){
+			return null;
+		}
+		return (dictionary.hasInterned(attributes) && dictionary.hasInternedFunctionalDependencies(funcDeps)) ? dictionary : null;
+	}
+
+	/**
+	* Returns the dictionary shared by the Attributes of two lists of FDs.
+	* @param E FDs of a schema.
+	* @param F FDs of a schema.
+	* @return The dictionary that interned all of them, or null when they
+	* come from more than one schema or some were never interned.
+	*/
+	public static AttributeDictionary sharedByFunctionalDependencies(Collection<FunctionalDependency> E, Collection<FunctionalDependency> F){
+		AttributeDictionary dictionary = AttributeDictionary.shared(new ArrayList<Attribute>(), E);
+		return (dictionary != null && dictionary.hasInternedFunctionalDependencies(F)) ? dictionary : null;
+	}
+
+	/**
+	* Finds the dictionary of the first Attribute of the list, or of the FDs
+	* when the list is empty. A new empty dictionary when there are no Attributes at all.
+	*/
+	private static AttributeDictionary first(Collection<Attribute> attributes, Collection<FunctionalDependency> funcDeps){
+		if(!attributes.isEmpty()){
+			return attributes.iterator().next().getDictionary();
+		}
+		for(FunctionalDependency f : funcDeps){
+			if(!f.getLeftSideAttributes().isEmpty()){
+				return f.getLeftSideAttributes().get(0).getDictionary();
+			}
+			if(!f.getRightSideAttributes().isEmpty()){
+				return f.getRightSideAttributes().get(0).getDictionary();
+			}
+		}
+		return new AttributeDictionary();
+	}
+
+	/**
+	* Returns the dictionary shared by the given Attributes.
+	* @param attributes Attributes of a schema.
+	* @return The dictionary of the first interned Attribute, or a new empty one.
+	*/
+	public static AttributeDictionary of(Collection<Attribute> attributes){
+		for(Attribute a : attributes){
+			if(a.getDictionary() != null){
+				return a.getDictionary();
+			}
+		}
+		return new AttributeDictionary();
+	}
+}
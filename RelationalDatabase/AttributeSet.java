@@ -0,0 +1,371 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The AttributeSet class is a compact set of Attributes stored as a bitmask
+ * over the integer ids of the attributes.<br>
+ * Schemas of upto 64 attributes live in a single long, wider schemas
+ * fall back to an array of longs, so subset, union and equality checks
+ * are a handful of bitwise operations instead of list scans.
+ */
+public final class AttributeSet implements Comparable<AttributeSet>{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The bits of the set while every id is below 64.
+	*/
+	private long word;
+	/**
+	* The bits of the set once an id of 64 or above is added, null till then.
+	*/
+	private long[] words;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates an empty AttributeSet.
+	*/
+	public AttributeSet(){
+		this.word = 0L;
+		this.words = null;
+	}
+
+	/**
+	* Creates a copy of the given AttributeSet.
+	* @param other The set to copy.
+	*/
+	public AttributeSet(AttributeSet other){
+		this.word = other.word;
+		this.words = (other.words == null) ? null : other.words.clone();
+	}
+
+	/**
+	* Creates an AttributeSet holding the ids of the given Attributes.
+	* @param attributes The Attributes to add to the set.
+	*/
+	public AttributeSet(Collection<Attribute> attributes){
+		this();
+		for(Attribute a : attributes){
+			this.add(a.getId());
+		}
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Adds the attribute id to the set.
+	* @param id The id of the attribute.
+	* @throws IllegalArgumentException if the id is negative, as for an Attribute no dictionary interned.
+	*/
+	public void add(int id){
+		if(id < 0){
+			throw new IllegalArgumentException("Cannot add the attribute id " + id + " to an AttributeSet");
+		}
+		if(this.words == null && id < 64){
+			this.word |= (1L << id);
+			return;
+		}
+		this.ensureCapacity((id >>> 6) + 1);
+		this.words[id >>> 6] |= (1L << id);
+	}
+
+	/**
+	* Removes the attribute id from the set.
+	* @param id The id of the attribute.
+	*/
+	public void remove(int id){
+		if(id < 0){
+			return;
+		}
+		if(this.words == null){
+			if(id < 64){
+				this.word &= ~(1L << id);
+			}
+			return;
+		}
+		if((id >>> 6) < this.words.length){
+			this.words[id >>> 6] &= ~(1L << id);
+		}
+	}
+
+	/**
+	* Checks if the attribute id is present in the set.
+	* @param id The id of the attribute.
+	* @return A boolean value
+	*/
+	public boolean contains(int id){
+		if(id < 0){
+			return false;
+		}
+		return (this.getWord(id >>> 6) & (1L << id)) != 0;
+	}
+
+	/**
+	* Checks if the Attribute is present in the set.
+	* @param a The Attribute to look for.
+	* @return A boolean value
+	*/
+	public boolean contains(Attribute a){
+		return this.contains(a.getId());
+	}
+
+	/**
+	* Checks if every attribute of the other set is present in this set.
+	* @param other The possible subset.
+	* @return A boolean value
+	*/
+	public boolean containsAll(AttributeSet other){
+		if(this.words == null && other.words == null){
+			return (other.word & ~this.word) == 0;
+		}
+		int n = other.wordCount();
+		for(int i=0; i<n; i++){
+			if((other.getWord(i) & ~this.getWord(i)) != 0){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* Checks if the two sets have any attribute in common.
+	* @param other The set to test against.
+	* @return A boolean value
+	*/
+	public boolean intersects(AttributeSet other){
+		if(this.words == null && other.words == null){
+			return (other.word & this.word) != 0;
+		}
+		int n = Math.min(this.wordCount(), other.wordCount());
+		for(int i=0; i<n; i++){
+			if((other.getWord(i) & this.getWord(i)) != 0){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	* Adds every attribute of the other set to this set.
+	* @param other The set to union with.
+	* @return true if this set changed.
+	*/
+	public boolean addAll(AttributeSet other){
+		if(this.words == null && other.words == null){
+			long old = this.word;
+			this.word |= other.word;
+			return old != this.word;
+		}
+		int n = other.wordCount();
+		this.ensureCapacity(n);
+		boolean changed = false;
+		for(int i=0; i<n; i++){
+			long old = this.words[i];
+			this.words[i] |= other.getWord(i);
+			changed |= (old != this.words[i]);
+		}
+		return changed;
+	}
+
+	/**
+	* Removes every attribute of the other set from this set.
+	* @param other The set to subtract.
+	*/
+	public void removeAll(AttributeSet other){
+		if(this.words == null){
+			this.word &= ~other.getWord(0);
+			return;
+		}
+		for(int i=0; i<this.words.length; i++){
+			this.words[i] &= ~other.getWord(i);
+		}
+	}
+
+	/**
+	* Keeps only the attributes that are also in the other set.
+	* @param other The set to intersect with.
+	*/
+	public void retainAll(AttributeSet other){
+		if(this.words == null){
+			this.word &= other.getWord(0);
+			return;
+		}
+		for(int i=0; i<this.words.length; i++){
+			this.words[i] &= other.getWord(i);
+		}
+	}
+
+	/**
+	* Removes every attribute from the set.
+	*/
+	public void clear(){
+		this.word = 0L;
+		if(this.words != null){
+			Arrays.fill(this.words, 0L);
+		}
+	}
+
+	/**
+	* Checks if the set has no attributes.
+	* @return A boolean value
+	*/
+	public boolean isEmpty(){
+		if(this.words == null){
+			return this.word == 0L;
+		}
+		for(long w : this.words){
+			if(w != 0L){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* Counts the attributes in the set.
+	* @return An integer
+	*/
+	public int size(){
+		if(this.words == null){
+			return Long.bitCount(this.word);
+		}
+		int count = 0;
+		for(long w : this.words){
+			count += Long.bitCount(w);
+		}
+		return count;
+	}
+
+	/**
+	* Finds the smallest id in the set that is greater than or equal to the given id.
+	* @param from The id to start looking from.
+	* @return The next id or -1 if there is none.
+	*/
+	public int nextSetBit(int from){
+		int n = this.wordCount();
+		int i = from >>> 6;
+		if(i >= n){
+			return -1;
+		}
+		long w = this.getWord(i) & (-1L << from);
+		while(true){
+			if(w != 0){
+				return (i << 6) + Long.numberOfTrailingZeros(w);
+			}
+			if(++i == n){
+				return -1;
+			}
+			w = this.getWord(i);
+		}
+	}
+
+	/**
+	* Generates the list of Attributes of the set using the dictionary of the schema.
+	* @param dictionary The dictionary the ids of the set belong to.
+	* @return An ArrayList of Attribute objects sorted by name.
+	*/
+	public ArrayList<Attribute> toAttributeList(AttributeDictionary dictionary){
+		ArrayList<Attribute> attributes = new ArrayList<Attribute>(this.size());
+		for(int id = this.nextSetBit(0); id >= 0; id = this.nextSetBit(id + 1)){
+			attributes.add(dictionary.getAttribute(id));
+		}
+		Utils.sortAttributes(attributes);
+		return attributes;
+	}
+
+	/**
+	* Tests the specified object for the same attribute ids.
+	*/
+	public boolean equals(Object o){
+		if(this == o){
+			return true;
+		}
+		if(!(o instanceof AttributeSet)){
+			return false;
+		}
+		AttributeSet other = (AttributeSet)o;
+		if(this.words == null && other.words == null){
+			return this.word == other.word;
+		}
+		int n = Math.max(this.wordCount(), other.wordCount());
+		for(int i=0; i<n; i++){
+			if(this.getWord(i) != other.getWord(i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* Hashes the attribute ids so equal sets hash alike whatever their width.
+	*/
+	public int hashCode(){
+		long h = 1234;
+		int n = this.wordCount();
+		for(int i=n; --i >= 0; ){
+			h ^= this.getWord(i) * (i + 1);
+		}
+		return (int)((h >> 32) ^ h);
+	}
+
+	/**
+	* Orders sets by their bitmask read as an unsigned number, so the order
+	* only depends on the attribute ids and not on how the sets were built.
+	*/
+	public int compareTo(AttributeSet other){
+		int n = Math.max(this.wordCount(), other.wordCount());
+		for(int i=n-1; i>=0; i--){
+			int c = Long.compareUnsigned(this.getWord(i), other.getWord(i));
+			if(c != 0){
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* A string representation of the attribute ids in the set.
+	*/
+	public String toString(){
+		StringBuilder s = new StringBuilder();
+		s.append("{");
+		for(int id = this.nextSetBit(0); id >= 0; id = this.nextSetBit(id + 1)){
+			if(s.length() > 1){
+				s.append(",");
+			}
+			s.append(id);
+		}
+		s.append("}");
+		return s.toString();
+	}
+
+	///////////////////////// Helper Methods /////////////////////////
+	/**
+	* Returns the i-th 64 bit word of the set, zero past the end.
+	*/
+	private long getWord(int i){
+		if(this.words == null){
+			return (i == 0) ? this.word : 0L;
+		}
+		return (i < this.words.length) ? this.words[i] : 0L;
+	}
+
+	/**
+	* Returns the number of 64 bit words used by the set.
+	*/
+	private int wordCount(){
+		return (this.words == null) ? 1 : this.words.length;
+	}
+
+	/**
+	* Switches to the wide representation holding atleast the given number of words.
+	*/
+	private void ensureCapacity(int n){
+		if(this.words == null){
+			this.words = new long[Math.max(n, 2)];
+			this.words[0] = this.word;
+			this.word = 0L;
+		} else if(this.words.length < n){
+			this.words = Arrays.copyOf(this.words, Math.max(n, 2 * this.words.length));
+		}
+	}
+}
@@ -0,0 +1,293 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The BCNFDecomposition splits a relation into BCNF fragments, deriving the
+ * FDs of every fragment by projecting the closures of the whole relation
+ * instead of filtering the FDs, so implied FDs are not lost.<br>
+ * A fragment S with a violation X is split into X+ and S - (X+ - X), which
+ * is lossless, until no fragment has a violation. Violations are found by
+ * an {@link FDProjection} with a bound on the size of the LHS; a fragment
+ * whose search stopped at the bound is kept and counted as unverified.
+ * The fragments are kept as AttributeSets, their FDs are projected and a
+ * fragment Relation is created only when asked for. Fragments of upto
+ * {@link #getExactProjectionSize()} attributes are projected without the
+ * bound, the projection of a larger one records if it stopped at the bound.
+ */
+public class BCNFDecomposition{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* Fragments with upto this many attributes have every subset tried when projected.
+	*/
+	private static int exactProjectionSize = 12;
+	/**
+	* The relation that is decomposed.
+	*/
+	private Relation relation;
+	/**
+	* The projection of the FDs of the relation.
+	*/
+	private FDProjection projection;
+	/**
+	* The projection without the bound for small fragments, null until it is needed.
+	*/
+	private FDProjection exactProjection;
+	/**
+	* The attributes of every fragment.
+	*/
+	private ArrayList<AttributeSet> fragments;
+	/**
+	* The fragments whose violation search stopped at the bound.
+	*/
+	private int noOfUnverified;
+	/**
+	* The FDs projected onto every fragment, null until they are asked for.
+	*/
+	private ArrayList<LinkedHashMap<AttributeSet, AttributeSet>> projections;
+	/**
+	* For every projected fragment, whether it's projection stopped at the bound.
+	*/
+	private boolean[] truncated;
+	/**
+	* The fragment of every schema, null until it is asked for.
+	*/
+	private ArrayList<Relation> relations;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Decomposes a relation into BCNF fragments with the default bound on the LHS.
+	* @param relation The relation to decompose.
+	*/
+	public BCNFDecomposition(Relation relation){
+		this(relation, FDProjection.getDefaultMaxLeftSize());
+	}
+
+	/**
+	* Decomposes a relation into BCNF fragments.
+	* @param relation The relation to decompose.
+	* @param maxLeftSize The largest LHS tried when searching for a violation or projecting.
+	*/
+	public BCNFDecomposition(Relation relation, int maxLeftSize){
+		this.relation = relation;
+		this.projection = new FDProjection(relation.getClosureEngine(), maxLeftSize);
+		this.fragments = new ArrayList<AttributeSet>();
+		this.noOfUnverified = 0;
+
+		ArrayList<AttributeSet> found = new ArrayList<AttributeSet>();
+		HashSet<AttributeSet> unverified = new HashSet<AttributeSet>();
+		LinkedList<AttributeSet> pending = new LinkedList<AttributeSet>();
+		pending.add(relation.getAttributeSet());
+		while(!pending.isEmpty()){
+			AttributeSet fragment = pending.removeFirst();
+			AttributeSet left = this.projection.findViolation(fragment);
+			if(left == null){
+				if(this.projection.isTruncated()){
+					unverified.add(fragment);
+				}
+				found.add(fragment);
+				continue;
+			}
+			left = this.shrink(left, fragment);
+			AttributeSet closure = relation.getClosureEngine().computeClosure(left);
+			closure.retainAll(fragment);
+			AttributeSet rest = new AttributeSet(fragment);
+			rest.removeAll(closure);
+			rest.addAll(left);
+			pending.addFirst(rest);
+			pending.addFirst(closure);
+		}
+
+		// A fragment inside another adds nothing to the join, the largest are kept first
+		Collections.sort(found, new SortAttributeSetsBySize());
+		for(AttributeSet fragment : found){
+			boolean subsumed = false;
+			for(AttributeSet kept : this.fragments){
+				if(kept.containsAll(fragment)){
+					subsumed = true;
+					break;
+				}
+			}
+			if(!subsumed){
+				this.fragments.add(fragment);
+				if(unverified.contains(fragment)){
+					this.noOfUnverified++;
+				}
+			}
+		}
+		this.projections = new ArrayList<LinkedHashMap<AttributeSet, AttributeSet>>(Collections.<LinkedHashMap<AttributeSet, AttributeSet>>nCopies(this.fragments.size(), null));
+		this.truncated = new boolean[this.fragments.size()];
+		this.relations = new ArrayList<Relation>(Collections.<Relation>nCopies(this.fragments.size(), null));
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Drops attributes from the LHS of a violation while it still determines
+	* one of the attributes it determined before, so the split keeps fewer
+	* attributes in the LHS. Such an LHS is still a violation, since it
+	* determines something it does not hold but not the whole fragment.
+	* @param left The LHS of a violation.
+	* @param fragment The attributes of the fragment.
+	* @return The reduced LHS.
+	*/
+	private AttributeSet shrink(AttributeSet left, AttributeSet fragment){
+		ClosureEngine engine = this.relation.getClosureEngine();
+		AttributeSet determined = engine.computeClosure(left);
+		determined.retainAll(fragment);
+		determined.removeAll(left);
+		int target = determined.nextSetBit(0);
+		AttributeSet reduced = new AttributeSet(left);
+		for(int id = left.nextSetBit(0); id >= 0; id = left.nextSetBit(id + 1)){
+			reduced.remove(id);
+			if(!engine.computeClosure(reduced).contains(target)){
+				reduced.add(id);
+			}
+		}
+		return reduced;
+	}
+
+	/**
+	* Returns the number of fragments of the decomposition.
+	* @return An integer
+	*/
+	public int size(){
+		return this.fragments.size();
+	}
+
+	/**
+	* Returns the attributes of a fragment.
+	* @param i The position of the fragment.
+	* @return An AttributeSet
+	*/
+	public AttributeSet getFragment(int i){
+		return this.fragments.get(i);
+	}
+
+	/**
+	* Returns the attributes of a fragment in the order of their ids.
+	* @param i The position of the fragment.
+	* @return A list of attributes
+	*/
+	public ArrayList<Attribute> getAttributes(int i){
+		return this.fragments.get(i).toAttributeList(this.relation.getDictionary());
+	}
+
+	/**
+	* Projects the FDs of the relation onto a fragment the first time, without
+	* the bound on the LHS when the fragment is small enough.
+	* @param i The position of the fragment.
+	* @return The RHS of every projected FD by it's LHS.
+	*/
+	private LinkedHashMap<AttributeSet, AttributeSet> getProjection(int i){
+		if(this.projections.get(i) == null){
+			AttributeSet fragment = this.fragments.get(i);
+			FDProjection projection = this.projection;
+			if(fragment.size() <= BCNFDecomposition.exactProjectionSize && fragment.size() - 1 > projection.getMaxLeftSize()){
+				if(this.exactProjection == null){
+					this.exactProjection = new FDProjection(this.relation.getClosureEngine(), BCNFDecomposition.exactProjectionSize);
+				}
+				projection = this.exactProjection;
+			}
+			this.projections.set(i, projection.project(fragment));
+			this.truncated[i] = projection.isTruncated();
+		}
+		return this.projections.get(i);
+	}
+
+	/**
+	* Projects the FDs of the relation onto a fragment, upto the bound on the
+	* LHS unless the fragment is small enough. See {@link #isTruncated(int)}.
+	* @param i The position of the fragment.
+	* @return A new list of FDs, empty when the fragment has none.
+	*/
+	public ArrayList<FunctionalDependency> getFunctionalDependencies(int i){
+		AttributeDictionary dictionary = this.relation.getDictionary();
+		ArrayList<FunctionalDependency> funcDeps = new ArrayList<FunctionalDependency>();
+		for(Map.Entry<AttributeSet, AttributeSet> f : this.getProjection(i).entrySet()){
+			funcDeps.add(new FunctionalDependency(this.relation, f.getKey().toAttributeList(dictionary), f.getValue().toAttributeList(dictionary)));
+		}
+		return funcDeps;
+	}
+
+	/**
+	* Returns the fragment Relation of a fragment, creating it the first time.
+	* The fragment inherits the analysis context of the relation.
+	* @param i The position of the fragment.
+	* @return A Relation
+	*/
+	public Relation getRelation(int i){
+		if(this.relations.get(i) == null){
+			ArrayList<FunctionalDependency> funcDeps = this.getFunctionalDependencies(i);
+			Relation r = new Relation(new HashSet<Attribute>(this.getAttributes(i)), funcDeps.isEmpty() ? null : funcDeps);
+			r.setAnalysisContext(this.relation.getAnalysisContext());
+			this.relations.set(i, r);
+		}
+		return this.relations.get(i);
+	}
+
+	/**
+	* Returns the fragment Relations of every fragment, creating the missing ones.
+	* @return A list of Relations in the order of the fragments.
+	*/
+	public ArrayList<Relation> getRelations(){
+		ArrayList<Relation> relations = new ArrayList<Relation>();
+		for(int i=0; i<this.fragments.size(); i++){
+			relations.add(this.getRelation(i));
+		}
+		return relations;
+	}
+
+	/**
+	* Checks if every fragment was shown to be in BCNF, that is no violation
+	* search stopped at the bound on the LHS.
+	* @return A boolean value
+	*/
+	public boolean isVerified(){
+		return this.noOfUnverified == 0;
+	}
+
+	/**
+	* Checks if the projection of a fragment stopped at the bound on the LHS,
+	* so that it's FDs and it's Relation may miss FDs with a larger LHS.
+	* The fragment is projected if it was not yet.
+	* @param i The position of the fragment.
+	* @return A boolean value
+	*/
+	public boolean isTruncated(int i){
+		this.getProjection(i);
+		return this.truncated[i];
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* A string representation of the fragments, eg: [R(A,B), R(B,C)].
+	*/
+	public String toString(){
+		StringBuilder s = new StringBuilder("[");
+		for(int i=0; i<this.fragments.size(); i++){
+			if(i > 0){
+				s.append(", ");
+			}
+			s.append("R(");
+			for(Attribute a : this.getAttributes(i)){
+				s.append(a.getName() + ",");
+			}
+			s.setCharAt(s.length() - 1, ')');
+		}
+		return s.append("]").toString();
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public Relation getRelation(){
+		return this.relation;
+	}
+	public int getNoOfUnverified(){
+		return this.noOfUnverified;
+	}
+	public static int getExactProjectionSize(){
+		return BCNFDecomposition.exactProjectionSize;
+	}
+	public static void setExactProjectionSize(int exactProjectionSize){
+		BCNFDecomposition.exactProjectionSize = exactProjectionSize;
+	}
+}
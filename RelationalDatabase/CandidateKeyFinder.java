@@ -0,0 +1,455 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The CandidateKeyFinder provides the key search algorithms that do not need
+ * the closure of every combination of attributes of a relation.
+ */
+public class CandidateKeyFinder{
+
+	private CandidateKeyFinder() {
+		throw new RuntimeException("You should not instantiate this class");
+	}
+
+	/**
+	* Finds every candidate key of a relation with the Lucchesi-Osborn algorithm.<br>
+	* Starting from one key, every key K and FD X-&gt;Y give the superkey X U (K - Y),
+	* which is reduced to a new key unless it already holds a known key.
+	* The running time is polynomial in the number of attributes, FDs and keys.
+	* @param relation The attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies of the relation.
+	* @return The list of candidate keys in the order they were found.
+	* @throws AnalysisAbortedException with the keys found so far when the context of the engine stops the search.
+	*/
+	public static ArrayList<AttributeSet> lucchesiOsborn(AttributeSet relation, ClosureEngine engine){
+		return CandidateKeyFinder.lucchesiOsborn(relation, engine, Collections.singletonList(relation));
+	}
+
+	/**
+	* Finds every candidate key of a relation with the Lucchesi-Osborn algorithm,
+	* starting from the keys the given superkeys reduce to. Every key is reached
+	* from any one key, so the seeds only save the search the keys they give.<br>
+	* The keys of a relation before an FD was added or removed are the usual
+	* seeds: the ones still superkeys are reduced, and if none is the relation is.
+	* @param relation The attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies of the relation.
+	* @param seeds Attribute sets that are likely superkeys of the relation.
+	* @return The list of candidate keys in the order they were found.
+	* @throws AnalysisAbortedException with the keys found so far when the context of the engine stops the search.
+	*/
+	public static ArrayList<AttributeSet> lucchesiOsborn(AttributeSet relation, ClosureEngine engine, Collection<AttributeSet> seeds){
+		ArrayList<AttributeSet> keys = new ArrayList<AttributeSet>();
+		try{
+			for(AttributeSet seed : seeds){
+				if(!CandidateKeyFinder.holdsKey(seed, keys) && CandidateKeyFinder.isSuperKey(seed, relation, engine)){
+					keys.add(CandidateKeyFinder.minimize(seed, relation, engine));
+				}
+			}
+			if(keys.isEmpty()){
+				keys.add(CandidateKeyFinder.minimize(relation, relation, engine));
+			}
+			for(int i=0; i<keys.size(); i++){
+				AttributeSet key = keys.get(i);
+				for(int fd=0; fd<engine.getNoOfFDs(); fd++){
+					AttributeSet s = new AttributeSet(key);
+					s.removeAll(engine.getRightSide(fd));
+					s.addAll(engine.getLeftSide(fd));
+					s.retainAll(relation);
+					if(CandidateKeyFinder.holdsKey(s, keys) || !CandidateKeyFinder.isSuperKey(s, relation, engine)){
+						continue;
+					}
+					keys.add(CandidateKeyFinder.minimize(s, relation, engine));
+				}
+			}
+		} catch(AnalysisAbortedException e){
+			throw e.withPartialResult("candidate keys", keys);
+		}
+		return keys;
+	}
+
+	/**
+	* Finds every candidate key of a relation by searching only the attributes
+	* that can be in some keys and not in others.<br>
+	* Attributes never on the RHS of an FD are in every key and are forced in,
+	* attributes only on the RHS of FDs are in no key and are left out. Subsets
+	* of the remaining middle attributes are tried in increasing size, so the
+	* first superkey found that holds no known key is a candidate key.
+	* @param relation The attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies of the relation.
+	* @return The list of candidate keys in the order they were found.
+	* @throws AnalysisAbortedException with the keys found so far when the context of the engine stops the search.
+	*/
+	public static ArrayList<AttributeSet> pruned(AttributeSet relation, ClosureEngine engine){
+		AttributeSet left = new AttributeSet();
+		AttributeSet right = new AttributeSet();
+		for(int fd=0; fd<engine.getNoOfFDs(); fd++){
+			left.addAll(engine.getLeftSide(fd));
+			right.addAll(engine.getRightSide(fd));
+		}
+		AttributeSet essential = new AttributeSet(relation);
+		essential.removeAll(right);
+		AttributeSet middle = new AttributeSet(relation);
+		middle.retainAll(left);
+		middle.retainAll(right);
+
+		ArrayList<AttributeSet> keys = new ArrayList<AttributeSet>();
+		int[] ids = new int[middle.size()];
+		int n = 0;
+		for(int id = middle.nextSetBit(0); id >= 0; id = middle.nextSetBit(id + 1)){
+			ids[n++] = id;
+		}
+		for(int size=0; size<=n; size++){
+			// Walks the combinations of the given size in lexicographic order of positions
+			int[] positions = new int[size];
+			for(int i=0; i<size; i++){
+				positions[i] = i;
+			}
+			while(true){
+				AttributeSet candidate = new AttributeSet(essential);
+				for(int p : positions){
+					candidate.add(ids[p]);
+				}
+				boolean isKey;
+				try{
+					isKey = !CandidateKeyFinder.holdsKey(candidate, keys) && CandidateKeyFinder.isSuperKey(candidate, relation, engine);
+				} catch(AnalysisAbortedException e){
+					throw e.withPartialResult("candidate keys", keys);
+				}
+				if(isKey){
+					keys.add(candidate);
+				}
+				if(!CandidateKeyFinder.nextCombination(positions, n)){
+					break;
+				}
+			}
+			if(size == 0 && !keys.isEmpty()){
+				break;
+			}
+		}
+		return keys;
+	}
+
+	/**
+	* Checks if some candidate key of a relation holds all the given attributes,
+	* stopping at the first one found.<br>
+	* Such a key is the essential attributes, the given attributes and some of
+	* the middle attributes, and it is a superkey that stops being one when any
+	* given attribute is dropped. Subsets of the middle attributes are tried in
+	* increasing size, and supersets of a subset that already made a given
+	* attribute redundant are skipped. Attributes only on the RHS of FDs are in
+	* no key, so they are rejected without a search.
+	* @param attributes The attributes the key must hold.
+	* @param relation The attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies of the relation.
+	* @return A boolean value
+	*/
+	public static boolean isInSomeKey(AttributeSet attributes, AttributeSet relation, ClosureEngine engine){
+		AttributeSet left = new AttributeSet();
+		AttributeSet right = new AttributeSet();
+		for(int fd=0; fd<engine.getNoOfFDs(); fd++){
+			left.addAll(engine.getLeftSide(fd));
+			right.addAll(engine.getRightSide(fd));
+		}
+		AttributeSet rightOnly = new AttributeSet(right);
+		rightOnly.removeAll(left);
+		if(!relation.containsAll(attributes) || attributes.intersects(rightOnly)){
+			return false;
+		}
+		AttributeSet base = new AttributeSet(relation);
+		base.removeAll(right);
+		base.addAll(attributes);
+		AttributeSet middle = new AttributeSet(relation);
+		middle.retainAll(left);
+		middle.retainAll(right);
+		middle.removeAll(attributes);
+
+		ArrayList<AttributeSet> redundant = new ArrayList<AttributeSet>();
+		int[] ids = new int[middle.size()];
+		int n = 0;
+		for(int id = middle.nextSetBit(0); id >= 0; id = middle.nextSetBit(id + 1)){
+			ids[n++] = id;
+		}
+		for(int size=0; size<=n; size++){
+			int[] positions = new int[size];
+			for(int i=0; i<size; i++){
+				positions[i] = i;
+			}
+			while(true){
+				AttributeSet chosen = new AttributeSet();
+				for(int p : positions){
+					chosen.add(ids[p]);
+				}
+				if(!CandidateKeyFinder.holdsKey(chosen, redundant)){
+					AttributeSet candidate = new AttributeSet(base);
+					candidate.addAll(chosen);
+					if(CandidateKeyFinder.isSuperKey(candidate, relation, engine)){
+						boolean needsAll = true;
+						for(int id = attributes.nextSetBit(0); id >= 0 && needsAll; id = attributes.nextSetBit(id + 1)){
+							candidate.remove(id);
+							needsAll = !CandidateKeyFinder.isSuperKey(candidate, relation, engine);
+							candidate.add(id);
+						}
+						if(needsAll){
+							return true;
+						}
+						redundant.add(chosen);
+					}
+				}
+				if(!CandidateKeyFinder.nextCombination(positions, n)){
+					break;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	* Finds a candidate key of the smallest total weight with a branch and
+	* bound search, without listing the other keys.<br>
+	* Essential attributes are in every key and attributes only on the RHS of
+	* FDs are in none, so only the middle attributes are branched on, cheapest
+	* first, each one in or out. A branch is cut when it can no longer reach a
+	* super key or can not beat the best key found so far, and the search stops
+	* once a key meets the lower bound of the essential attributes plus the
+	* cheapest middle attribute.
+	* @param relation The attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies of the relation.
+	* @param weights The weight of every attribute by it's id, null to count the attributes.
+	* @return A candidate key of the smallest total weight.
+	* @throws AnalysisAbortedException with the best super key found so far when the context of the engine stops the search.
+	*/
+	public static AttributeSet minimumKey(AttributeSet relation, ClosureEngine engine, double[] weights){
+		MinimumKeySearch search = new MinimumKeySearch(relation, engine, weights);
+		try{
+			search.run();
+		} catch(AnalysisAbortedException e){
+			throw e.withPartialResult("minimum key", Collections.singletonList(search.best));
+		}
+		return CandidateKeyFinder.minimize(search.best, relation, engine);
+	}
+
+	/**
+	* Reduces a superkey to a candidate key by dropping every attribute
+	* whose removal still leaves a superkey, in the order of the attribute ids.
+	* @param superKey A superkey of the relation.
+	* @param relation The attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies of the relation.
+	* @return A candidate key contained in the superkey.
+	*/
+	public static AttributeSet minimize(AttributeSet superKey, AttributeSet relation, ClosureEngine engine){
+		AttributeSet key = new AttributeSet(superKey);
+		for(int id = superKey.nextSetBit(0); id >= 0; id = superKey.nextSetBit(id + 1)){
+			key.remove(id);
+			if(!CandidateKeyFinder.isSuperKey(key, relation, engine)){
+				key.add(id);
+			}
+		}
+		return key;
+	}
+
+	/**
+	* Checks if the closure of the attributes covers the relation.
+	* @param attributes The attributes to test.
+	* @param relation The attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies of the relation.
+	* @return A boolean value
+	*/
+	public static boolean isSuperKey(AttributeSet attributes, AttributeSet relation, ClosureEngine engine){
+		return engine.implies(attributes, relation);
+	}
+
+	/**
+	* Checks if one of the keys is contained in the attributes.
+	* @param attributes The attributes to test.
+	* @param keys The keys found so far.
+	* @return A boolean value
+	*/
+	static boolean holdsKey(AttributeSet attributes, Collection<AttributeSet> keys){
+		for(AttributeSet key : keys){
+			if(attributes.containsAll(key)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	* Steps the positions to the next combination of the same size in lexicographic order.
+	* @param positions The positions of the current combination, updated in place.
+	* @param n The number of positions to choose from.
+	* @return false once every combination has been visited.
+	*/
+	static boolean nextCombination(int[] positions, int n){
+		int size = positions.length;
+		int i = size - 1;
+		while(i >= 0 && positions[i] == n - size + i){
+			i--;
+		}
+		if(i < 0){
+			return false;
+		}
+		positions[i]++;
+		for(int j=i+1; j<size; j++){
+			positions[j] = positions[j-1] + 1;
+		}
+		return true;
+	}
+
+	/**
+	* Turns keys into lists of Attributes in the order the exhaustive search
+	* reports them: by the length of their printed form, then by their attribute names.
+	* @param keys The keys as AttributeSets.
+	* @param dictionary The dictionary of the schema.
+	* @return An ArrayList of candidate keys.
+	*/
+	public static ArrayList<ArrayList<Attribute>> toKeyList(Collection<AttributeSet> keys, AttributeDictionary dictionary){
+		ArrayList<ArrayList<Attribute>> keyList = new ArrayList<ArrayList<Attribute>>();
+		for(AttributeSet key : keys){
+			keyList.add(key.toAttributeList(dictionary));
+		}
+		Utils.sortKeys(keyList);
+		return keyList;
+	}
+
+	/**
+	 * The MinimumKeySearch holds the state of the branch and bound search of
+	 * {@link CandidateKeyFinder#minimumKey(AttributeSet, ClosureEngine, double[])}.
+	 */
+	private static final class MinimumKeySearch{
+		/**
+		* The attributes of the relation.
+		*/
+		private AttributeSet relation;
+		/**
+		* The ClosureEngine of the Functional Dependencies of the relation.
+		*/
+		private ClosureEngine engine;
+		/**
+		* The weight of every attribute by it's id, null to count the attributes.
+		*/
+		private double[] weights;
+		/**
+		* The ids of the middle attributes, cheapest first.
+		*/
+		private int[] middle;
+		/**
+		* The best super key found so far.
+		*/
+		private AttributeSet best;
+		/**
+		* The weight of the best super key found so far.
+		*/
+		private double bestWeight;
+		/**
+		* No super key weighs less than this, the search stops once it is met.
+		*/
+		private double lowerBound;
+		/**
+		* The essential attributes and the middle attributes chosen on the current branch.
+		*/
+		private AttributeSet chosen;
+
+		private MinimumKeySearch(AttributeSet relation, ClosureEngine engine, double[] weights){
+			this.relation = relation;
+			this.engine = engine;
+			this.weights = weights;
+			AttributeSet left = new AttributeSet();
+			AttributeSet right = new AttributeSet();
+			for(int fd=0; fd<engine.getNoOfFDs(); fd++){
+				left.addAll(engine.getLeftSide(fd));
+				right.addAll(engine.getRightSide(fd));
+			}
+			AttributeSet essential = new AttributeSet(relation);
+			essential.removeAll(right);
+			AttributeSet middle = new AttributeSet(relation);
+			middle.retainAll(left);
+			middle.retainAll(right);
+
+			ArrayList<Integer> ids = new ArrayList<Integer>();
+			for(int id = middle.nextSetBit(0); id >= 0; id = middle.nextSetBit(id + 1)){
+				ids.add(id);
+			}
+			Collections.sort(ids, new Comparator<Integer>(){
+				public int compare(Integer a, Integer b){
+					int c = Double.compare(MinimumKeySearch.this.weight(a), MinimumKeySearch.this.weight(b));
+					return (c != 0) ? c : a.compareTo(b);
+				}
+			});
+			this.middle = new int[ids.size()];
+			for(int i=0; i<this.middle.length; i++){
+				this.middle[i] = ids.get(i);
+			}
+
+			// Every key is made of the essential attributes and some middle attributes
+			this.best = new AttributeSet(essential);
+			this.best.addAll(middle);
+			this.best = CandidateKeyFinder.minimize(this.best, relation, engine);
+			this.bestWeight = this.weight(this.best);
+			this.lowerBound = this.weight(essential);
+			if(!CandidateKeyFinder.isSuperKey(essential, relation, engine) && this.middle.length > 0){
+				this.lowerBound += this.weight(this.middle[0]);
+			}
+			this.chosen = essential;
+		}
+
+		/**
+		* Searches every branch that could beat the best key found so far.
+		*/
+		private void run(){
+			if(this.bestWeight > this.lowerBound){
+				this.search(0, this.weight(this.chosen));
+			}
+		}
+
+		/**
+		* Decides the middle attributes from the given position on.
+		* @param i The position of the next middle attribute to decide.
+		* @param weight The weight of the chosen attributes.
+		* @return true once the best key is proven to be of the smallest weight.
+		*/
+		private boolean search(int i, double weight){
+			if(CandidateKeyFinder.isSuperKey(this.chosen, this.relation, this.engine)){
+				if(weight < this.bestWeight){
+					this.best = new AttributeSet(this.chosen);
+					this.bestWeight = weight;
+				}
+				return this.bestWeight <= this.lowerBound;
+			}
+			// A super key needs one more attribute, the cheapest one left is at position i
+			if(i == this.middle.length || weight + this.weight(this.middle[i]) >= this.bestWeight){
+				return false;
+			}
+			AttributeSet reachable = new AttributeSet(this.chosen);
+			for(int j=i; j<this.middle.length; j++){
+				reachable.add(this.middle[j]);
+			}
+			if(!CandidateKeyFinder.isSuperKey(reachable, this.relation, this.engine)){
+				return false;
+			}
+			int id = this.middle[i];
+			this.chosen.add(id);
+			boolean done = this.search(i + 1, weight + this.weight(id));
+			this.chosen.remove(id);
+			return done || this.search(i + 1, weight);
+		}
+
+		/**
+		* The weight of an attribute.
+		*/
+		private double weight(int id){
+			return (this.weights == null) ? 1 : this.weights[id];
+		}
+
+		/**
+		* The total weight of a set of attributes.
+		*/
+		private double weight(AttributeSet attributes){
+			double weight = 0;
+			for(int id = attributes.nextSetBit(0); id >= 0; id = attributes.nextSetBit(id + 1)){
+				weight += this.weight(id);
+			}
+			return weight;
+		}
+	}
+}
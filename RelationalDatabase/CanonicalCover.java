@@ -0,0 +1,167 @@
+package RelationalDatabase;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * The CanonicalCover is a Minimal Cover that does not depend on the order
+ * of the Functional Dependencies it is computed from.<br>
+ * The FDs are split into single RHS FDs, ordered by the bitmasks of their
+ * LHS and RHS, reduced and pruned in that order, and the survivors with the
+ * same LHS are merged back together. Lists that differ only in the order,
+ * grouping, duplication or trivial parts of their FDs therefore get the same
+ * cover. The 128 bit fingerprint digests the attribute names of the relation
+ * with the cover, so that it can key a hash lookup of equivalent schemas.
+ */
+public class CanonicalCover{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The FDs of the cover, one per LHS, ordered by the bitmask of the LHS.
+	*/
+	private ArrayList<FunctionalDependency> funcDeps;
+	/**
+	* The MD5 digest of the schema and the cover as 32 hex digits.
+	*/
+	private String fingerprint;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Computes the canonical cover of a list of Functional Dependencies.
+	* @param relation The relation the FDs belong to.
+	* @param funcDeps The FDs to cover.
+	*/
+	public CanonicalCover(Relation relation, Collection<FunctionalDependency> funcDeps){
+		AttributeDictionary dictionary = relation.getDictionary();
+
+		// Single RHS FDs without their trivial parts
+		ArrayList<FunctionalDependency> split = new ArrayList<FunctionalDependency>();
+		for(FunctionalDependency f : funcDeps){
+			AttributeSet left = new AttributeSet(f.getLeftSideAttributes());
+			for(Attribute a : f.getRightSideAttributes()){
+				if(!left.contains(a)){
+					split.add(CanonicalCover.newFD(relation, left, Collections.singletonList(a), dictionary));
+				}
+			}
+		}
+		split = CanonicalCover.sortDistinct(split);
+
+		// Minimizing the LHS, dropping attributes in the order of their ids
+		ClosureEngine engine = new ClosureEngine(split);
+		engine.setContext(relation.getAnalysisContext());
+		ArrayList<FunctionalDependency> reduced = new ArrayList<FunctionalDependency>();
+		for(FunctionalDependency f : split){
+			AttributeSet left = new AttributeSet(f.getLeftSideAttributes());
+			AttributeSet right = new AttributeSet(f.getRightSideAttributes());
+			for(int id = left.nextSetBit(0); id >= 0; id = left.nextSetBit(id + 1)){
+				left.remove(id);
+				if(left.isEmpty() || !engine.implies(left, right)){
+					left.add(id);
+				}
+			}
+			reduced.add(CanonicalCover.newFD(relation, left, f.getRightSideAttributes(), dictionary));
+		}
+		reduced = CanonicalCover.sortDistinct(reduced);
+
+		// Removing the redundant FDs in order
+		engine = new ClosureEngine(reduced);
+		engine.setContext(relation.getAnalysisContext());
+		for(int fd=0; fd<reduced.size(); fd++){
+			engine.setDisabled(fd, true);
+			if(!engine.implies(engine.getLeftSide(fd), engine.getRightSide(fd))){
+				engine.setDisabled(fd, false);
+			}
+		}
+
+		// Merging the FDs with the same LHS, which are next to each other
+		this.funcDeps = new ArrayList<FunctionalDependency>();
+		AttributeSet left = null;
+		AttributeSet right = null;
+		for(int fd=0; fd<reduced.size(); fd++){
+			if(engine.isDisabled(fd)){
+				continue;
+			}
+			if(left != null && !left.equals(engine.getLeftSide(fd))){
+				this.funcDeps.add(CanonicalCover.newFD(relation, left, right.toAttributeList(dictionary), dictionary));
+				left = null;
+			}
+			if(left == null){
+				left = engine.getLeftSide(fd);
+				right = new AttributeSet();
+			}
+			right.addAll(engine.getRightSide(fd));
+		}
+		if(left != null){
+			this.funcDeps.add(CanonicalCover.newFD(relation, left, right.toAttributeList(dictionary), dictionary));
+		}
+		this.fingerprint = CanonicalCover.digest(relation.getAttributes(), this.funcDeps);
+	}
+
+	///////////////////////// Helper Methods /////////////////////////
+	/**
+	* Creates an FD with it's attributes in the order of their ids.
+	*/
+	private static FunctionalDependency newFD(Relation relation, AttributeSet left, List<Attribute> right, AttributeDictionary dictionary){
+		return new FunctionalDependency(relation, left.toAttributeList(dictionary), new ArrayList<Attribute>(right));
+	}
+
+	/**
+	* Sorts FDs by the bitmasks of their LHS and RHS and drops the duplicates.
+	*/
+	private static ArrayList<FunctionalDependency> sortDistinct(ArrayList<FunctionalDependency> funcDeps){
+		Utils.sortFunctionalDependencyByBitmask(funcDeps);
+		ArrayList<FunctionalDependency> distinct = new ArrayList<FunctionalDependency>();
+		for(FunctionalDependency f : funcDeps){
+			if(distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(f)){
+				distinct.add(f);
+			}
+		}
+		return distinct;
+	}
+
+	/**
+	* Computes the MD5 digest of the schema and the FDs written as
+	* R(A,B,C,D,E):A,B-&gt;C;D-&gt;E, with the attribute names sorted.
+	*/
+	private static String digest(ArrayList<Attribute> attributes, ArrayList<FunctionalDependency> funcDeps){
+		TreeSet<String> names = new TreeSet<String>();
+		for(Attribute a : attributes){
+			names.add(a.getName());
+		}
+		StringBuilder s = new StringBuilder("R(" + String.join(",", names) + "):");
+		for(int i=0; i<funcDeps.size(); i++){
+			if(i > 0){
+				s.append(";");
+			}
+			s.append(funcDeps.get(i).getName());
+		}
+		try {
+			byte[] hash = MessageDigest.getInstance("MD5").digest(s.toString().getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder();
+			for(byte b : hash){
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch(NoSuchAlgorithmException e){
+			// Every Java platform is required to support MD5
+			throw new IllegalStateException(e);
+		}
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* A string representation of the canonical cover.
+	*/
+	public String toString(){
+		return this.funcDeps.toString();
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public ArrayList<FunctionalDependency> getFunctionalDependencies(){
+		return this.funcDeps;
+	}
+	public String getFingerprint(){
+		return this.fingerprint;
+	}
+}
@@ -19,16 +19,34 @@ public class Closure{
 	* Eg: leftAttributes = {A, B, C} when (A)+ = {A, B, C}
 	*/
 	private ArrayList<Attribute> rightAttributes;
+	/**
+	* The bitmask of leftAttributes.
+	*/
+	private AttributeSet leftSet;
+	/**
+	* The bitmask of rightAttributes.
+	*/
+	private AttributeSet rightSet;
+	/**
+	* Whether closures are computed with the linear time ClosureEngine
+	* or with the repeated pass over all FDs until nothing changes, read by
+	* every closure including those computed by the workers of a pool.
+	*/
+	private static volatile boolean linearClosure = true;
 
 	///////////////////////// Class Constructors /////////////////////////
 	/**
 	* Private constructor that creates the Closure object when one exists after being computed.
 	* @param leftAttributes The list of attributes whose closure the object holds.
 	* @param rightAttributes The list of attributes which is the closure.
+	* @param leftSet The bitmask of leftAttributes.
+	* @param rightSet The bitmask of rightAttributes.
 	*/
-	private Closure(ArrayList<Attribute> leftAttributes, ArrayList<Attribute> rightAttributes){
+	private Closure(ArrayList<Attribute> leftAttributes, ArrayList<Attribute> rightAttributes, AttributeSet leftSet, AttributeSet rightSet){
 		this.leftAttributes = leftAttributes;
 		this.rightAttributes = rightAttributes;
+		this.leftSet = leftSet;
+		this.rightSet = rightSet;
 	}
 
 	///////////////////////// Class Methods /////////////////////////
@@ -40,62 +58,123 @@ public class Closure{
 	* @return A new Closure object after computing the closure.
 	*/
 	public static Closure computeClosure(ArrayList<Attribute> closureAttributes, Collection<FunctionalDependency> funcDeps){
-		// System.out.println("\n*)Computing Closures: ");
-		ArrayList<Attribute> left = new ArrayList<Attribute>();
-		ArrayList<Attribute> right = new ArrayList<Attribute>();
+		if(AttributeDictionary.shared(closureAttributes, funcDeps) == null){
+			return Closure.computeClosureByName(closureAttributes, funcDeps);
+		}
+		if(Closure.linearClosure){
+			return Closure.computeClosure(closureAttributes, new ClosureEngine(funcDeps));
+		}
+		return Closure.computeFixpointClosure(closureAttributes, funcDeps);
+	}
+
+	/** 
+	* Computes the closure of the given list of attributes with
+	* respect to the provided list of Functional Dependencies,
+	* looking it up in the given cache first
+	* @param closureAttributes The list of attributes to find the closure of
+	* @param funcDeps The list of functional dependecies to refer to for computing the closure
+	* @param cache The ClosureCache to consult, only used by the linear time ClosureEngine
+	* @return A new Closure object after computing the closure.
+	*/
+	public static Closure computeClosure(ArrayList<Attribute> closureAttributes, Collection<FunctionalDependency> funcDeps, ClosureCache cache){
+		if(AttributeDictionary.shared(closureAttributes, funcDeps) == null){
+			return Closure.computeClosureByName(closureAttributes, funcDeps);
+		}
+		if(Closure.linearClosure){
+			ClosureEngine engine = new ClosureEngine(funcDeps);
+			engine.setCache(cache);
+			return Closure.computeClosure(closureAttributes, engine);
+		}
+		return Closure.computeFixpointClosure(closureAttributes, funcDeps);
+	}
+
+	/** 
+	* Computes the closure of the given list of attributes with
+	* the ClosureEngine built for a list of Functional Dependencies
+	* @param closureAttributes The list of attributes to find the closure of
+	* @param engine The ClosureEngine of the functional dependecies to refer to,
+	* whose dictionary turns the closure back into Attributes
+	* @return A new Closure object after computing the closure.
+	*/
+	public static Closure computeClosure(ArrayList<Attribute> closureAttributes, ClosureEngine engine){
+		ArrayList<Attribute> left = new ArrayList<Attribute>(closureAttributes);
+		Utils.sortAttributes(left);
+		AttributeSet leftSet = new AttributeSet(left);
+		AttributeSet right = engine.computeClosure(leftSet);
+		// Without FDs the closure is the list itself, so it's own dictionary is the right one
+		AttributeDictionary dictionary = (engine.getDictionary() != null) ? engine.getDictionary() : AttributeDictionary.of(left);
+		return new Closure(left, right.toAttributeList(dictionary), leftSet, right);
+	}
+
+	/** 
+	* Computes the closure of a list of attributes and a list of Functional
+	* Dependencies of different schemas, whose ids can not be mixed, by
+	* matching the attributes by name as Attribute.equals does. The closure
+	* holds the given Attribute objects, while it's bitmasks are over the
+	* ids of a dictionary of it's own.
+	* @param closureAttributes The list of attributes to find the closure of
+	* @param funcDeps The list of functional dependecies to refer to for computing the closure
+	* @return A new Closure object after computing the closure.
+	*/
+	private static Closure computeClosureByName(ArrayList<Attribute> closureAttributes, Collection<FunctionalDependency> funcDeps){
+		AttributeDictionary dictionary = new AttributeDictionary();
+		Closure c = Closure.computeClosure(dictionary.internAll(closureAttributes), dictionary.internFunctionalDependencies(funcDeps));
+		HashMap<String, Attribute> byName = new HashMap<String, Attribute>();
+		for(FunctionalDependency f : funcDeps){
+			for(Attribute a : f.getRightSideAttributes()){
+				byName.put(a.getName(), a);
+			}
+		}
 		for(Attribute a : closureAttributes){
-			left.add(a);
-			right.add(a);
+			byName.put(a.getName(), a);
+		}
+		ArrayList<Attribute> left = new ArrayList<Attribute>(closureAttributes);
+		Utils.sortAttributes(left);
+		ArrayList<Attribute> right = new ArrayList<Attribute>();
+		for(Attribute a : c.getRightSide()){
+			right.add(byName.get(a.getName()));
+		}
+		Utils.sortAttributes(right);
+		return new Closure(left, right, c.getLeftSet(), c.getRightSet());
+	}
+
+	/** 
+	* Computes the closure of the given list of attributes by applying every
+	* Functional Dependency over and over until the closure stops growing
+	* @param closureAttributes The list of attributes to find the closure of
+	* @param funcDeps The list of functional dependecies to refer to for computing the closure
+	* @return A new Closure object after computing the closure.
+	*/
+	private static Closure computeFixpointClosure(ArrayList<Attribute> closureAttributes, Collection<FunctionalDependency> funcDeps){
+		ArrayList<Attribute> left = new ArrayList<Attribute>(closureAttributes);
+		AttributeSet right = new AttributeSet(closureAttributes);
+		AttributeDictionary dictionary = AttributeDictionary.of(closureAttributes);
+		// Snapshot the FDs as bitmasks once, the fixpoint loop then only does bitwise operations
+		int noOfFDs = funcDeps.size();
+		AttributeSet[] fdLeft = new AttributeSet[noOfFDs];
+		AttributeSet[] fdRight = new AttributeSet[noOfFDs];
+		int i = 0;
+		for(FunctionalDependency f : funcDeps){
+			fdLeft[i] = new AttributeSet(f.getLeftSideAttributes());
+			fdRight[i] = new AttributeSet(f.getRightSideAttributes());
+			if(dictionary.size() == 0){
+				dictionary = AttributeDictionary.of(f.getRightSideAttributes());
+			}
+			i++;
 		}
-		ArrayList<Attribute> oldLeftAttributes = new ArrayList<Attribute>();
-		// System.out.println("   For Attributes " + closureAttributes + ": ");
+		boolean[] applied = new boolean[noOfFDs];
+		boolean changed;
 		do{
-			Utils.copyAttributes(right, oldLeftAttributes);
-			// System.out.println(right);
-			// System.out.println(oldLeftAttributes);
-			for(FunctionalDependency f : funcDeps){
-				// System.out.println("       For " + f + ": ");
-				if(right.containsAll(f.getLeftSideAttributes())){
-					// System.out.println("        " + right + " conatains " + f.getLeftSideAttributes() + ": ");
-					for(Attribute a : f.getRightSideAttributes()){
-						// System.out.println("         " + left + " -> " + right + ": ");
-						if(!right.contains(a)){
-							right.add(a);
-						}
-					}
+			changed = false;
+			for(i=0; i<noOfFDs; i++){
+				if(!applied[i] && right.containsAll(fdLeft[i])){
+					applied[i] = true;
+					changed |= right.addAll(fdRight[i]);
 				}
-				// boolean hasAllAttributes = true;
-				// ArrayList<Attribute> fd_leftSide = f.getLeftSideAttributes();
-				// ArrayList<Attribute> fd_rightSide = f.getRightSideAttributes();
-				// if(right.containsAll(fd_leftSide)){
-				// 	for(Attribute a : fd_rightSide){
-				// 		if(!right.contains(a)){
-				// 			right.add(a);
-				// 		}
-						
-				// 	}
-				// }
-				// if(fd_leftSide.size() <= right.size()){
-				// 	for(Attribute a : fd_leftSide){
-				// 		if(!right.contains(a)){
-				// 			hasAllAttributes = false;
-				// 			break;
-				// 		}
-				// 	}
-				// 	if(hasAllAttributes){
-				// 		for(Attribute a : fd_rightSide){
-				// 			if(!right.contains(a)){
-				// 				right.add(a);
-				// 			}
-							
-				// 		}
-				// 	}
-				// }
 			}
-		} while(!right.equals(oldLeftAttributes));
+		} while(changed);
 		Utils.sortAttributes(left);
-		Utils.sortAttributes(right);
-		return new Closure(left, right);
+		return new Closure(left, right.toAttributeList(dictionary), new AttributeSet(left), right);
 	}
 
 	/** 
@@ -123,19 +202,48 @@ public class Closure{
 	* @return A boolean value true or false.
 	*/
 	public static boolean equivalentClosures(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F){
-		return (Closure.E_Covers_F(E, F) && Closure.E_Covers_F(F, E));
+		return (Closure.E_Covers_F(E, F, null) && Closure.E_Covers_F(F, E, null));
+	}
+
+	/** 
+	* Checks if two lists of Functional Dependencies are equivalent,
+	* looking the closures up in the given cache first.
+	* @param E An ArrayList of Functional Dependency.
+	* @param F An ArrayList of Functional Dependency.
+	* @param cache The ClosureCache to consult.
+	* @return A boolean value true or false.
+	*/
+	public static boolean equivalentClosures(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F, ClosureCache cache){
+		return (Closure.E_Covers_F(E, F, cache) && Closure.E_Covers_F(F, E, cache));
 	}
 
 	/** 
 	* Checks if one list of Functional Dependencies cover another list of Functional Dependencies.
 	* @param E An ArrayList of Functional Dependency.
 	* @param F An ArrayList of Functional Dependency.
+	* @param cache The ClosureCache to consult, null for none.
 	* @return A boolean value true or false.
 	*/
-	private static boolean E_Covers_F(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F){
+	private static boolean E_Covers_F(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F, ClosureCache cache){
+		if(AttributeDictionary.sharedByFunctionalDependencies(E, F) == null){
+			// The ids of different schemas can not be mixed, so the FDs are compared by attribute name
+			AttributeDictionary dictionary = new AttributeDictionary();
+			E = dictionary.internFunctionalDependencies(E);
+			F = dictionary.internFunctionalDependencies(F);
+		}
+		if(Closure.linearClosure){
+			ClosureEngine engine = new ClosureEngine(E);
+			engine.setCache(cache);
+			for(FunctionalDependency f : F){
+				if(!engine.implies(new AttributeSet(f.getLeftSideAttributes()), new AttributeSet(f.getRightSideAttributes()))){
+					return false;
+				}
+			}
+			return true;
+		}
 		for(FunctionalDependency f : F){
 			Closure c = Closure.computeClosure(f.getLeftSideAttributes(), E);
-			if(!(c.getRightSide().containsAll(f.getRightSideAttributes()))){
+			if(!(c.getRightSet().containsAll(new AttributeSet(f.getRightSideAttributes())))){
 				return false;
 			}
 		}
@@ -155,6 +263,31 @@ public class Closure{
 		}
 	}
 
+	/** 
+	* Hashes the left and right side lists of attributes.
+	*/
+	public int hashCode(){
+		return 31 * this.leftAttributes.hashCode() + this.rightAttributes.hashCode();
+	}
+
+	/** 
+	* Selects the algorithm used by the computeClosure methods of the whole JVM,
+	* so that the benchmarks can compare them. Switch it while no analysis runs,
+	* as a relation analysed across the switch mixes both.
+	* @param enabled true for the linear time ClosureEngine, false for the repeated pass over all FDs
+	*/
+	public static void setLinearClosure(boolean enabled){
+		Closure.linearClosure = enabled;
+	}
+
+	/** 
+	* Checks if closures are computed with the linear time ClosureEngine.
+	* @return A boolean value
+	*/
+	public static boolean isLinearClosure(){
+		return Closure.linearClosure;
+	}
+
 	///////////////////////// Printing Methods /////////////////////////
 	/** 
 	* @return An ArrayList of Attribute objects
@@ -208,4 +341,20 @@ public class Closure{
 	public ArrayList<Attribute> getRightSide(){
 		return this.rightAttributes;
 	}
+
+	/** 
+	* Returns the bitmask of the member variable leftAttributes
+	* @return An AttributeSet
+	*/
+	public AttributeSet getLeftSet(){
+		return this.leftSet;
+	}
+
+	/** 
+	* Returns the bitmask of the member variable rightAttributes
+	* @return An AttributeSet
+	*/
+	public AttributeSet getRightSet(){
+		return this.rightSet;
+	}
 }
\ No newline at end of file
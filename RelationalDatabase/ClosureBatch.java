@@ -0,0 +1,109 @@
+package RelationalDatabase;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.*;
+
+/**
+ * The ClosureBatch computes the closures of many sets of attributes against
+ * the same Functional Dependencies on a ForkJoinPool.<br>
+ * The sets are split into ranges, and every worker thread computes the
+ * closures of it's ranges with it's own copy of the ClosureEngine, writing
+ * each closure to the slot of it's set.
+ */
+public class ClosureBatch{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* Ranges of upto this many sets are computed by a single task.
+	*/
+	private static final int SEQUENTIAL_SETS = 64;
+	/**
+	* The sets to find the closures of.
+	*/
+	private List<AttributeSet> attributes;
+	/**
+	* The closure of every set, in the order of the sets.
+	*/
+	private AttributeSet[] closures;
+	/**
+	* The ClosureEngine of each worker thread.
+	*/
+	private ThreadLocal<ClosureEngine> engines;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Sets up the closures of the given sets.
+	* @param attributes The sets to find the closures of.
+	* @param engine The ClosureEngine each worker thread gets a copy of.
+	*/
+	private ClosureBatch(List<AttributeSet> attributes, final ClosureEngine engine){
+		this.attributes = attributes;
+		this.closures = new AttributeSet[attributes.size()];
+		this.engines = new ThreadLocal<ClosureEngine>(){
+			protected ClosureEngine initialValue(){
+				// The sets of a batch are distinct, so the shared cache would only add contention
+				ClosureEngine e = engine.copy();
+				e.setCache(null);
+				return e;
+			}
+		};
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Computes the closures of the given sets on the pool of the calling task,
+	* or on the common pool when not called from one.
+	* @param attributes The sets to find the closures of.
+	* @param engine The ClosureEngine of the Functional Dependencies.
+	* @return The closure of every set, in the order of the sets.
+	*/
+	public static AttributeSet[] computeClosures(List<AttributeSet> attributes, ClosureEngine engine){
+		return ClosureBatch.computeClosures(attributes, engine, Utils.currentPool());
+	}
+
+	/**
+	* Computes the closures of the given sets on the given pool.
+	* @param attributes The sets to find the closures of.
+	* @param engine The ClosureEngine of the Functional Dependencies.
+	* @param pool The pool to run the tasks on.
+	* @return The closure of every set, in the order of the sets.
+	*/
+	public static AttributeSet[] computeClosures(List<AttributeSet> attributes, ClosureEngine engine, ForkJoinPool pool){
+		ClosureBatch batch = new ClosureBatch(attributes, engine);
+		Utils.invoke(pool, batch.new BatchTask(0, attributes.size()));
+		return batch.closures;
+	}
+
+	/**
+	 * The BatchTask computes the closures of a range of sets, splitting
+	 * the range in halves while it is large.
+	 */
+	private final class BatchTask extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+		/**
+		* The first set of the range.
+		*/
+		private int from;
+		/**
+		* The set after the last one of the range.
+		*/
+		private int to;
+
+		private BatchTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute(){
+			if(this.to - this.from <= SEQUENTIAL_SETS){
+				ClosureEngine engine = ClosureBatch.this.engines.get();
+				for(int i=this.from; i<this.to; i++){
+					ClosureBatch.this.closures[i] = engine.computeClosure(ClosureBatch.this.attributes.get(i));
+				}
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			RecursiveAction.invokeAll(new BatchTask(this.from, middle), new BatchTask(middle, this.to));
+		}
+	}
+}
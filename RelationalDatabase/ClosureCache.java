@@ -0,0 +1,254 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The ClosureCache memoizes attribute closures keyed by the fingerprint of
+ * the list of Functional Dependencies and the bitmask of the attributes.<br>
+ * The cache is bounded and evicts the least recently used closure first.
+ * Every relation decomposed from an input relation shares the input's cache,
+ * and {@link #setSharedCacheEnabled(boolean)} makes all relations of the JVM
+ * share a single cache. Closures are stored over attribute ids, so schemas
+ * with the same shape share entries whatever their attribute names.
+ */
+public class ClosureCache{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The number of closures a cache holds unless told otherwise.
+	*/
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	/**
+	* Whether every relation of the JVM uses the shared cache, read by the
+	* workers of a pool when they create relations.
+	*/
+	private static volatile boolean sharedCacheEnabled = false;
+	/**
+	* The cache shared by every relation of the JVM, created on first use.
+	*/
+	private static ClosureCache sharedCache = null;
+	/**
+	* The maximum number of closures held.
+	*/
+	private int capacity;
+	/**
+	* The cached closures in least recently used first order.
+	*/
+	private LinkedHashMap<Key, AttributeSet> closures;
+	/**
+	* The number of lookups that found a closure.
+	*/
+	private long hits;
+	/**
+	* The number of lookups that did not find a closure.
+	*/
+	private long misses;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates a cache holding upto the given number of closures.
+	* @param capacity The maximum number of closures held.
+	*/
+	public ClosureCache(int capacity){
+		this.capacity = capacity;
+		this.closures = new LinkedHashMap<Key, AttributeSet>(16, 0.75f, true){
+			protected boolean removeEldestEntry(Map.Entry<Key, AttributeSet> eldest){
+				return this.size() > ClosureCache.this.capacity;
+			}
+		};
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Looks up the closure of the attributes under the fingerprinted FDs.
+	* @param funcDeps The fingerprint of the list of FDs.
+	* @param attributes The attributes whose closure is wanted.
+	* @return A copy of the cached closure, or null if it is not cached.
+	*/
+	public synchronized AttributeSet get(Fingerprint funcDeps, AttributeSet attributes){
+		AttributeSet closure = this.closures.get(new Key(funcDeps, attributes));
+		if(closure == null){
+			this.misses++;
+			return null;
+		}
+		this.hits++;
+		return new AttributeSet(closure);
+	}
+
+	/**
+	* Stores the closure of the attributes under the fingerprinted FDs.
+	* @param funcDeps The fingerprint of the list of FDs.
+	* @param attributes The attributes whose closure was computed.
+	* @param closure The closure of the attributes.
+	*/
+	public synchronized void put(Fingerprint funcDeps, AttributeSet attributes, AttributeSet closure){
+		this.closures.put(new Key(funcDeps, new AttributeSet(attributes)), new AttributeSet(closure));
+	}
+
+	/**
+	* Removes every closure and resets the hit and miss counters.
+	*/
+	public synchronized void clear(){
+		this.closures.clear();
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	/**
+	* Returns the cache a new relation should use: the shared one when
+	* sharing is enabled, otherwise a fresh one.
+	* @return A ClosureCache
+	*/
+	public static ClosureCache forRelation(){
+		if(ClosureCache.sharedCacheEnabled){
+			return ClosureCache.getSharedCache();
+		}
+		return new ClosureCache(DEFAULT_CAPACITY);
+	}
+
+	/**
+	* Makes every relation created afterwards use the cache shared by the JVM.
+	* @param enabled true to share one cache, false for a cache per input relation.
+	*/
+	public static void setSharedCacheEnabled(boolean enabled){
+		ClosureCache.sharedCacheEnabled = enabled;
+	}
+
+	/**
+	* Checks if relations share the cache of the JVM.
+	* @return A boolean value
+	*/
+	public static boolean isSharedCacheEnabled(){
+		return ClosureCache.sharedCacheEnabled;
+	}
+
+	/**
+	* Returns the cache shared by the JVM.
+	* @return A ClosureCache
+	*/
+	public static synchronized ClosureCache getSharedCache(){
+		if(ClosureCache.sharedCache == null){
+			ClosureCache.sharedCache = new ClosureCache(DEFAULT_CAPACITY);
+		}
+		return ClosureCache.sharedCache;
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	/**
+	* The number of lookups that found a closure.
+	*/
+	public synchronized long getHits(){
+		return this.hits;
+	}
+	/**
+	* The number of lookups that found no closure.
+	*/
+	public synchronized long getMisses(){
+		return this.misses;
+	}
+	/**
+	* The number of closures held.
+	*/
+	public synchronized int size(){
+		return this.closures.size();
+	}
+	/**
+	* The maximum number of closures held.
+	*/
+	public int getCapacity(){
+		return this.capacity;
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* A string representation of the cache statistics.
+	*/
+	public synchronized String toString(){
+		return "ClosureCache[size=" + this.closures.size() + ", capacity=" + this.capacity + ", hits=" + this.hits + ", misses=" + this.misses + "]";
+	}
+
+	/**
+	 * The Fingerprint is the canonical form of a list of Functional Dependencies:
+	 * the distinct (LHS, RHS) bitmask pairs in sorted order, with a precomputed hash.
+	 * Two lists holding the same FDs in any order or multiplicity share a fingerprint.
+	 */
+	public static final class Fingerprint{
+		/**
+		* The sorted distinct LHS and RHS pairs, LHS at even and RHS at odd positions.
+		*/
+		private AttributeSet[] funcDeps;
+		/**
+		* The hash of funcDeps.
+		*/
+		private int hash;
+
+		/**
+		* Creates the fingerprint of the FDs given as parallel arrays of LHS and RHS.
+		* @param left The LHS of every FD.
+		* @param right The RHS of every FD.
+		*/
+		public Fingerprint(AttributeSet[] left, AttributeSet[] right){
+			Integer[] order = new Integer[left.length];
+			for(int i=0; i<order.length; i++){
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>(){
+				public int compare(Integer a, Integer b){
+					int c = left[a].compareTo(left[b]);
+					return (c != 0) ? c : right[a].compareTo(right[b]);
+				}
+			});
+			ArrayList<AttributeSet> canonical = new ArrayList<AttributeSet>();
+			for(int i : order){
+				int n = canonical.size();
+				if(n > 0 && canonical.get(n-2).equals(left[i]) && canonical.get(n-1).equals(right[i])){
+					continue;
+				}
+				canonical.add(left[i]);
+				canonical.add(right[i]);
+			}
+			this.funcDeps = canonical.toArray(new AttributeSet[0]);
+			this.hash = Arrays.hashCode(this.funcDeps);
+		}
+
+		public boolean equals(Object o){
+			if(this == o){
+				return true;
+			}
+			if(!(o instanceof Fingerprint)){
+				return false;
+			}
+			Fingerprint f = (Fingerprint)o;
+			return this.hash == f.hash && Arrays.equals(this.funcDeps, f.funcDeps);
+		}
+
+		public int hashCode(){
+			return this.hash;
+		}
+	}
+
+	/**
+	 * The key of a cached closure.
+	 */
+	private static final class Key{
+		private Fingerprint funcDeps;
+		private AttributeSet attributes;
+		private int hash;
+
+		private Key(Fingerprint funcDeps, AttributeSet attributes){
+			this.funcDeps = funcDeps;
+			this.attributes = attributes;
+			this.hash = 31 * funcDeps.hashCode() + attributes.hashCode();
+		}
+
+		public boolean equals(Object o){
+			Key k = (Key)o;
+			return this.hash == k.hash && this.attributes.equals(k.attributes) && this.funcDeps.equals(k.funcDeps);
+		}
+
+		public int hashCode(){
+			return this.hash;
+		}
+	}
+}
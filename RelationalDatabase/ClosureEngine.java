@@ -0,0 +1,399 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The ClosureEngine computes attribute closures in time linear in the total
+ * size of a list of Functional Dependencies (the LINCLOSURE algorithm).<br>
+ * The FDs are indexed once: every attribute points to the FDs whose LHS holds
+ * it and every FD keeps a counter of LHS attributes not yet in the closure.
+ * A closure is then a worklist pass over the newly added attributes, firing
+ * an FD as soon as it's counter drops to zero.<br>
+ * The index is built once and the counters are reset between calls, so one
+ * engine serves every closure computed against the same list of FDs.
+ * An engine is not thread safe, use {@link #copy()} to get one per thread.
+ */
+public class ClosureEngine{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The number of Functional Dependencies indexed by the engine.
+	*/
+	private int noOfFDs;
+	/**
+	* The number of distinct attributes in the LHS of each FD.
+	*/
+	private int[] leftSize;
+	/**
+	* The LHS of each FD as a bitmask.
+	*/
+	private AttributeSet[] fdLeft;
+	/**
+	* The RHS of each FD as a bitmask.
+	*/
+	private AttributeSet[] fdRight;
+	/**
+	* The attribute ids of the RHS of each FD.
+	*/
+	private int[][] rightIds;
+	/**
+	* For every attribute id, the FDs whose LHS contains the attribute.
+	*/
+	private int[][] adjacency;
+	/**
+	* The FDs with an empty LHS, which fire for every closure.
+	*/
+	private int[] emptyLeft;
+	/**
+	* The per FD count of LHS attributes still missing from the closure being computed.
+	*/
+	private int[] counter;
+	/**
+	* The attribute ids added to the closure but not yet propagated.
+	*/
+	private int[] worklist;
+	/**
+	* FDs that are switched off and never fire.
+	*/
+	private boolean[] disabled;
+	/**
+	* The number of FDs that are switched off.
+	*/
+	private int noOfDisabled;
+	/**
+	* The cache consulted before computing a closure, null for none.
+	*/
+	private ClosureCache cache;
+	/**
+	* The fingerprint of the indexed FDs, computed when a cache is attached.
+	*/
+	private ClosureCache.Fingerprint fingerprint;
+	/**
+	* The context every computed closure is counted against, null for none.
+	*/
+	private AnalysisContext context;
+	/**
+	* The dictionary the attribute ids of the FDs belong to, null when there are no FDs.
+	*/
+	private AttributeDictionary dictionary;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Builds the attribute to FD index for the given Functional Dependencies.
+	* @param funcDeps The list of functional dependecies to refer to for computing closures
+	*/
+	public ClosureEngine(Collection<FunctionalDependency> funcDeps){
+		this.noOfFDs = funcDeps.size();
+		this.leftSize = new int[this.noOfFDs];
+		this.fdLeft = new AttributeSet[this.noOfFDs];
+		this.fdRight = new AttributeSet[this.noOfFDs];
+		this.rightIds = new int[this.noOfFDs][];
+		int maxId = -1;
+		int i = 0;
+		this.dictionary = null;
+		for(FunctionalDependency f : funcDeps){
+			if(this.dictionary == null){
+				this.dictionary = ClosureEngine.dictionaryOf(f);
+			}
+			this.fdLeft[i] = new AttributeSet(f.getLeftSideAttributes());
+			this.fdRight[i] = new AttributeSet(f.getRightSideAttributes());
+			this.leftSize[i] = this.fdLeft[i].size();
+			this.rightIds[i] = ClosureEngine.ids(this.fdRight[i]);
+			maxId = Math.max(maxId, Math.max(ClosureEngine.maxId(this.fdLeft[i]), ClosureEngine.maxId(this.fdRight[i])));
+			i++;
+		}
+		int[] degree = new int[maxId + 1];
+		int noOfEmpty = 0;
+		for(i=0; i<this.noOfFDs; i++){
+			if(this.leftSize[i] == 0){
+				noOfEmpty++;
+			}
+			for(int id = this.fdLeft[i].nextSetBit(0); id >= 0; id = this.fdLeft[i].nextSetBit(id + 1)){
+				degree[id]++;
+			}
+		}
+		this.adjacency = new int[maxId + 1][];
+		for(int id=0; id<=maxId; id++){
+			this.adjacency[id] = new int[degree[id]];
+			degree[id] = 0;
+		}
+		this.emptyLeft = new int[noOfEmpty];
+		noOfEmpty = 0;
+		for(i=0; i<this.noOfFDs; i++){
+			if(this.leftSize[i] == 0){
+				this.emptyLeft[noOfEmpty++] = i;
+			}
+			for(int id = this.fdLeft[i].nextSetBit(0); id >= 0; id = this.fdLeft[i].nextSetBit(id + 1)){
+				this.adjacency[id][degree[id]++] = i;
+			}
+		}
+		this.counter = new int[this.noOfFDs];
+		this.worklist = new int[Math.max(maxId + 1, 1)];
+		this.disabled = new boolean[this.noOfFDs];
+		this.noOfDisabled = 0;
+		this.cache = null;
+		this.fingerprint = null;
+		this.context = null;
+	}
+
+	/**
+	* Creates an engine sharing the FD index of another engine with it's own counters.
+	* @param other The engine to share the index with.
+	*/
+	private ClosureEngine(ClosureEngine other){
+		this.noOfFDs = other.noOfFDs;
+		this.leftSize = other.leftSize;
+		this.fdLeft = other.fdLeft;
+		this.fdRight = other.fdRight;
+		this.rightIds = other.rightIds;
+		this.adjacency = other.adjacency;
+		this.emptyLeft = other.emptyLeft;
+		this.counter = new int[this.noOfFDs];
+		this.worklist = new int[other.worklist.length];
+		this.disabled = other.disabled.clone();
+		this.noOfDisabled = other.noOfDisabled;
+		this.cache = other.cache;
+		this.fingerprint = other.fingerprint;
+		this.context = other.context;
+		this.dictionary = other.dictionary;
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Creates an engine that shares this engine's FD index, for use on another thread.
+	* @return A new ClosureEngine
+	*/
+	public ClosureEngine copy(){
+		return new ClosureEngine(this);
+	}
+
+	/**
+	* Computes the closure of the given attributes.
+	* @param attributes The attributes to find the closure of.
+	* @return A new AttributeSet holding the closure.
+	*/
+	public AttributeSet computeClosure(AttributeSet attributes){
+		if(this.cache != null && this.noOfDisabled == 0){
+			AttributeSet closure = this.cache.get(this.fingerprint, attributes);
+			if(closure == null){
+				closure = this.computeClosure(attributes, null);
+				this.cache.put(this.fingerprint, attributes, closure);
+			}
+			return closure;
+		}
+		return this.computeClosure(attributes, null);
+	}
+
+	/**
+	* Checks if the closure of left holds every attribute of right,
+	* stopping as soon as it does.
+	* @param left The attributes to find the closure of.
+	* @param right The attributes the closure must hold.
+	* @return A boolean value
+	*/
+	public boolean implies(AttributeSet left, AttributeSet right){
+		if(this.cache != null && this.noOfDisabled == 0){
+			return this.computeClosure(left).containsAll(right);
+		}
+		return this.computeClosure(left, right).containsAll(right);
+	}
+
+	/**
+	* Computes the closure of the given attributes, stopping early once it holds the target.
+	* @param attributes The attributes to find the closure of.
+	* @param target The attributes after which to stop, null to compute the full closure.
+	* @return A new AttributeSet holding the closure.
+	*/
+	private AttributeSet computeClosure(AttributeSet attributes, AttributeSet target){
+		if(this.context != null){
+			this.context.closureComputed();
+		}
+		AttributeSet closure = new AttributeSet(attributes);
+		if(target != null && closure.containsAll(target)){
+			return closure;
+		}
+		System.arraycopy(this.leftSize, 0, this.counter, 0, this.noOfFDs);
+		int top = 0;
+		for(int id = closure.nextSetBit(0); id >= 0; id = closure.nextSetBit(id + 1)){
+			top = this.push(top, id);
+		}
+		for(int fd : this.emptyLeft){
+			top = this.fire(fd, closure, top);
+		}
+		while(top > 0){
+			int id = this.worklist[--top];
+			if(id >= this.adjacency.length){
+				continue;
+			}
+			for(int fd : this.adjacency[id]){
+				if(--this.counter[fd] == 0){
+					top = this.fire(fd, closure, top);
+				}
+			}
+			if(target != null && closure.containsAll(target)){
+				break;
+			}
+		}
+		return closure;
+	}
+
+	/**
+	* Adds the RHS of an FD to the closure and queues the new attributes.
+	*/
+	private int fire(int fd, AttributeSet closure, int top){
+		if(this.disabled[fd]){
+			return top;
+		}
+		for(int id : this.rightIds[fd]){
+			if(!closure.contains(id)){
+				closure.add(id);
+				top = this.push(top, id);
+			}
+		}
+		return top;
+	}
+
+	/**
+	* Pushes an attribute id onto the worklist, growing it if needed.
+	*/
+	private int push(int top, int id){
+		if(top == this.worklist.length){
+			this.worklist = Arrays.copyOf(this.worklist, 2 * this.worklist.length);
+		}
+		this.worklist[top] = id;
+		return top + 1;
+	}
+
+	/**
+	* Switches an FD off or back on for the following closures.
+	* @param fd The position of the FD in the list the engine was built from.
+	* @param isDisabled true to stop the FD from firing.
+	*/
+	public void setDisabled(int fd, boolean isDisabled){
+		if(this.disabled[fd] != isDisabled){
+			this.noOfDisabled += isDisabled ? 1 : -1;
+		}
+		this.disabled[fd] = isDisabled;
+	}
+
+	/**
+	* Attaches a cache that is consulted while no FD is switched off.
+	* @param cache The ClosureCache to use, null to stop caching.
+	*/
+	public void setCache(ClosureCache cache){
+		if(cache != null && this.fingerprint == null){
+			this.fingerprint = new ClosureCache.Fingerprint(this.fdLeft, this.fdRight);
+		}
+		this.cache = cache;
+	}
+
+	/**
+	* Returns the cache attached to the engine.
+	* @return A ClosureCache or null
+	*/
+	public ClosureCache getCache(){
+		return this.cache;
+	}
+
+	/**
+	* Counts every following closure against a context, which aborts the
+	* closure that exceeds it's budget. Copies made afterwards share it.
+	* @param context The AnalysisContext to use, null for none.
+	*/
+	public void setContext(AnalysisContext context){
+		this.context = context;
+	}
+
+	/**
+	* Returns the context the closures are counted against.
+	* @return An AnalysisContext or null
+	*/
+	public AnalysisContext getContext(){
+		return this.context;
+	}
+
+	/**
+	* Returns the dictionary the attribute ids of the FDs belong to, which
+	* turns the computed closures back into Attributes.
+	* @return An AttributeDictionary, or null when the engine has no FDs
+	*/
+	public AttributeDictionary getDictionary(){
+		return this.dictionary;
+	}
+
+	/**
+	* Checks if an FD is switched off.
+	* @param fd The position of the FD in the list the engine was built from.
+	* @return A boolean value
+	*/
+	public boolean isDisabled(int fd){
+		return this.disabled[fd];
+	}
+
+	///////////////////////// Helper Methods /////////////////////////
+	/**
+	* Lists the ids of an AttributeSet.
+	*/
+	private static int[] ids(AttributeSet set){
+		int[] ids = new int[set.size()];
+		int i = 0;
+		for(int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1)){
+			ids[i++] = id;
+		}
+		return ids;
+	}
+
+	/**
+	* Finds the largest id of an AttributeSet, -1 when empty.
+	*/
+	private static int maxId(AttributeSet set){
+		int max = -1;
+		for(int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1)){
+			max = id;
+		}
+		return max;
+	}
+
+	/**
+	* Finds the dictionary of the attributes of an FD, null if none was interned.
+	*/
+	private static AttributeDictionary dictionaryOf(FunctionalDependency f){
+		for(Attribute a : f.getLeftSideAttributes()){
+			if(a.getDictionary() != null){
+				return a.getDictionary();
+			}
+		}
+		for(Attribute a : f.getRightSideAttributes()){
+			if(a.getDictionary() != null){
+				return a.getDictionary();
+			}
+		}
+		return null;
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	/**
+	* Returns the number of FDs indexed by the engine.
+	* @return An integer
+	*/
+	public int getNoOfFDs(){
+		return this.noOfFDs;
+	}
+
+	/**
+	* Returns the LHS of an indexed FD.
+	* @param fd The position of the FD in the list the engine was built from.
+	* @return An AttributeSet
+	*/
+	public AttributeSet getLeftSide(int fd){
+		return this.fdLeft[fd];
+	}
+
+	/**
+	* Returns the RHS of an indexed FD.
+	* @param fd The position of the FD in the list the engine was built from.
+	* @return An AttributeSet
+	*/
+	public AttributeSet getRightSide(int fd){
+		return this.fdRight[fd];
+	}
+}
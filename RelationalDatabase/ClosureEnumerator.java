@@ -0,0 +1,177 @@
+package RelationalDatabase;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.*;
+
+/**
+ * The ClosureEnumerator computes the closures of every combination of the
+ * attributes of a relation on a ForkJoinPool.<br>
+ * The combinations form a tree where each node extends it's parent with an
+ * attribute further down the attribute list. The tree is split by prefix
+ * into tasks, every worker thread computes closures with it's own copy of
+ * the ClosureEngine, and every closure is written straight to it's slot in
+ * the depth first preorder of the tree, so no merge or sort is needed.
+ * For single character attribute names that order is the order of
+ * {@link Utils#sortClosure(ArrayList)}.
+ */
+public class ClosureEnumerator{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* Subtrees with upto this many attributes left to add are walked by a single task.
+	*/
+	private static final int SEQUENTIAL_DEPTH = 10;
+	/**
+	* The largest number of attributes whose combinations fit in an array.
+	*/
+	private static final int MAX_ATTRIBUTES = 30;
+	/**
+	* Relations with atleast this many attributes have their closures enumerated in parallel.
+	*/
+	private static int parallelThreshold = 16;
+	/**
+	* The attributes to combine, in the order of the relation.
+	*/
+	private ArrayList<Attribute> attributes;
+	/**
+	* The number of attributes to combine.
+	*/
+	private int n;
+	/**
+	* The closures in depth first preorder of the combination tree.
+	*/
+	private Closure[] closures;
+	/**
+	* The ClosureEngine of each worker thread.
+	*/
+	private ThreadLocal<ClosureEngine> engines;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Sets up the enumeration of the combinations of the attributes.
+	* @param attributes The attributes to combine.
+	* @param engine The ClosureEngine each worker thread gets a copy of.
+	*/
+	private ClosureEnumerator(ArrayList<Attribute> attributes, final ClosureEngine engine){
+		this.attributes = attributes;
+		this.n = attributes.size();
+		if(this.n > MAX_ATTRIBUTES){
+			throw new IllegalArgumentException("Cannot enumerate the closures of " + this.n + " attributes");
+		}
+		this.closures = new Closure[(1 << this.n) - 1];
+		this.engines = new ThreadLocal<ClosureEngine>(){
+			protected ClosureEngine initialValue(){
+				// Every combination is visited once, so the shared cache would only add contention
+				ClosureEngine e = engine.copy();
+				e.setCache(null);
+				return e;
+			}
+		};
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Computes the closures of every combination of the attributes on the pool
+	* of the calling task, or on the common pool when not called from one.
+	* @param attributes The attributes to combine.
+	* @param engine The ClosureEngine of the Functional Dependencies.
+	* @return The closures in depth first preorder of the attribute positions.
+	*/
+	public static ArrayList<Closure> computeClosures(ArrayList<Attribute> attributes, ClosureEngine engine){
+		return ClosureEnumerator.computeClosures(attributes, engine, Utils.currentPool());
+	}
+
+	/**
+	* Computes the closures of every combination of the attributes on the given pool.
+	* @param attributes The attributes to combine.
+	* @param engine The ClosureEngine of the Functional Dependencies.
+	* @param pool The pool to run the tasks on.
+	* @return The closures in depth first preorder of the attribute positions.
+	*/
+	public static ArrayList<Closure> computeClosures(ArrayList<Attribute> attributes, ClosureEngine engine, ForkJoinPool pool){
+		ClosureEnumerator enumerator = new ClosureEnumerator(attributes, engine);
+		Utils.invoke(pool, enumerator.new SubsetTask(new int[0], -1));
+		return new ArrayList<Closure>(Arrays.asList(enumerator.closures));
+	}
+
+	/**
+	* Computes the closures of every combination below a node of the tree on the calling thread.
+	* @param path The attributes of the node.
+	* @param last The position of the last attribute of the node, -1 for the root.
+	* @param offset The slot of the node, -1 for the root.
+	* @param engine The ClosureEngine of the calling thread.
+	*/
+	private void enumerate(ArrayList<Attribute> path, int last, int offset, ClosureEngine engine){
+		int child = offset + 1;
+		for(int i=last+1; i<this.n; i++){
+			path.add(this.attributes.get(i));
+			this.closures[child] = Closure.computeClosure(path, engine);
+			this.enumerate(path, i, child, engine);
+			path.remove(path.size() - 1);
+			child += this.subtreeSize(i);
+		}
+	}
+
+	/**
+	* Counts the nodes of the subtree whose last attribute is at the given position.
+	*/
+	private int subtreeSize(int last){
+		return 1 << (this.n - 1 - last);
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public static int getParallelThreshold(){
+		return ClosureEnumerator.parallelThreshold;
+	}
+	public static void setParallelThreshold(int parallelThreshold){
+		ClosureEnumerator.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * The SubsetTask computes the closures of a node of the combination tree
+	 * and of everything below it, forking one task per child while the
+	 * subtree is large.
+	 */
+	private final class SubsetTask extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+		/**
+		* The attribute positions of the node.
+		*/
+		private int[] prefix;
+		/**
+		* The slot of the node, -1 for the root.
+		*/
+		private int offset;
+
+		private SubsetTask(int[] prefix, int offset){
+			this.prefix = prefix;
+			this.offset = offset;
+		}
+
+		protected void compute(){
+			ClosureEngine engine = ClosureEnumerator.this.engines.get();
+			int n = ClosureEnumerator.this.n;
+			int last = (this.prefix.length == 0) ? -1 : this.prefix[this.prefix.length - 1];
+			ArrayList<Attribute> path = new ArrayList<Attribute>(n);
+			for(int p : this.prefix){
+				path.add(ClosureEnumerator.this.attributes.get(p));
+			}
+			if(this.offset >= 0){
+				ClosureEnumerator.this.closures[this.offset] = Closure.computeClosure(path, engine);
+			}
+			if(n - 1 - last <= SEQUENTIAL_DEPTH){
+				ClosureEnumerator.this.enumerate(path, last, this.offset, engine);
+				return;
+			}
+			ArrayList<SubsetTask> children = new ArrayList<SubsetTask>();
+			int child = this.offset + 1;
+			for(int i=last+1; i<n; i++){
+				int[] childPrefix = Arrays.copyOf(this.prefix, this.prefix.length + 1);
+				childPrefix[this.prefix.length] = i;
+				children.add(new SubsetTask(childPrefix, child));
+				child += ClosureEnumerator.this.subtreeSize(i);
+			}
+			RecursiveAction.invokeAll(children);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The ClosureIterator generates the closures of every combination of the
+ * attributes of a relation one at a time, so they can be printed or paged
+ * through without holding all 2^n of them in memory.<br>
+ * The combinations come in depth first preorder of the attribute positions,
+ * the order {@link ClosureEnumerator} fills it's array in. That is the sorted
+ * order of {@link Relation#getClosures()} only for single character names.
+ * Only the combination being visited is kept, as a stack of attribute positions.
+ */
+public class ClosureIterator implements Iterator<Closure>{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The attributes to combine, in the order of the relation.
+	*/
+	private ArrayList<Attribute> attributes;
+	/**
+	* The ClosureEngine used by this iterator alone.
+	*/
+	private ClosureEngine engine;
+	/**
+	* The attribute positions of the next combination.
+	*/
+	private int[] positions;
+	/**
+	* The attributes of the next combination.
+	*/
+	private ArrayList<Attribute> path;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates an iterator over the closures of every combination of the attributes.
+	* @param attributes The attributes to combine.
+	* @param engine The ClosureEngine of the Functional Dependencies, copied for the iterator.
+	*/
+	public ClosureIterator(ArrayList<Attribute> attributes, ClosureEngine engine){
+		this.attributes = attributes;
+		// Every combination is visited once, so caching would only hold on to memory
+		this.engine = engine.copy();
+		this.engine.setCache(null);
+		this.positions = new int[attributes.size()];
+		this.path = new ArrayList<Attribute>(attributes.size());
+		if(!attributes.isEmpty()){
+			this.positions[0] = 0;
+			this.path.add(attributes.get(0));
+		}
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	public boolean hasNext(){
+		return !this.path.isEmpty();
+	}
+
+	public Closure next(){
+		if(this.path.isEmpty()){
+			throw new NoSuchElementException();
+		}
+		Closure c = Closure.computeClosure(this.path, this.engine);
+		this.advance();
+		return c;
+	}
+
+	/**
+	* Moves to the next combination in preorder: extend with the next position
+	* if there is one, else drop the last position and step the one before it.
+	*/
+	private void advance(){
+		int n = this.attributes.size();
+		int length = this.path.size();
+		int last = this.positions[length - 1];
+		if(last < n - 1){
+			this.positions[length] = last + 1;
+			this.path.add(this.attributes.get(last + 1));
+			return;
+		}
+		this.path.remove(--length);
+		if(length > 0){
+			int p = ++this.positions[length - 1];
+			this.path.set(length - 1, this.attributes.get(p));
+		}
+	}
+}
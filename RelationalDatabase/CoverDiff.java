@@ -0,0 +1,228 @@
+package RelationalDatabase;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.*;
+
+/**
+ * The CoverDiff compares two lists of Functional Dependencies E and F and
+ * records the FDs of each that the other does not imply. E and F are
+ * equivalent exactly when both of these lists are empty.<br>
+ * Every FD is tested with a single early stopping closure against a
+ * ClosureEngine built once per list. The tests can run on a ForkJoinPool,
+ * each worker thread with it's own copy of the engine.
+ */
+public class CoverDiff{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* Ranges of upto this many FDs are tested by a single task.
+	*/
+	private static final int SEQUENTIAL_FDS = 64;
+	/**
+	* The FDs of E that F does not imply.
+	*/
+	private ArrayList<FunctionalDependency> notImpliedByF;
+	/**
+	* The FDs of F that E does not imply.
+	*/
+	private ArrayList<FunctionalDependency> notImpliedByE;
+
+	///////////////////////// Class Constructors /////////////////////////
+	private CoverDiff(ArrayList<FunctionalDependency> notImpliedByF, ArrayList<FunctionalDependency> notImpliedByE){
+		this.notImpliedByF = notImpliedByF;
+		this.notImpliedByE = notImpliedByE;
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Compares two lists of Functional Dependencies on the calling thread.
+	* @param E An ArrayList of Functional Dependency.
+	* @param F An ArrayList of Functional Dependency.
+	* @return The CoverDiff of E and F.
+	*/
+	public static CoverDiff compare(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F){
+		return CoverDiff.compare(E, F, false);
+	}
+
+	/**
+	* Compares two lists of Functional Dependencies.
+	* @param E An ArrayList of Functional Dependency.
+	* @param F An ArrayList of Functional Dependency.
+	* @param parallel Whether to test the FDs in parallel on the pool of the calling task or the common pool.
+	* @return The CoverDiff of E and F.
+	*/
+	public static CoverDiff compare(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F, boolean parallel){
+		ArrayList<ArrayList<FunctionalDependency>> lists = CoverDiff.sameDictionary(E, F);
+		ArrayList<FunctionalDependency> notImpliedByF = CoverDiff.notImplied(E, lists.get(0), new ClosureEngine(lists.get(1)), parallel, null);
+		ArrayList<FunctionalDependency> notImpliedByE = CoverDiff.notImplied(F, lists.get(1), new ClosureEngine(lists.get(0)), parallel, null);
+		return new CoverDiff(notImpliedByF, notImpliedByE);
+	}
+
+	/**
+	* Checks if two lists of Functional Dependencies are equivalent, stopping
+	* at the first FD of either list the other does not imply.
+	* @param E An ArrayList of Functional Dependency.
+	* @param F An ArrayList of Functional Dependency.
+	* @param parallel Whether to test the FDs in parallel on the pool of the calling task or the common pool.
+	* @return A boolean value
+	*/
+	public static boolean equivalent(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F, boolean parallel){
+		AtomicBoolean found = new AtomicBoolean(false);
+		ArrayList<ArrayList<FunctionalDependency>> lists = CoverDiff.sameDictionary(E, F);
+		if(!CoverDiff.notImplied(E, lists.get(0), new ClosureEngine(lists.get(1)), parallel, found).isEmpty()){
+			return false;
+		}
+		return CoverDiff.notImplied(F, lists.get(1), new ClosureEngine(lists.get(0)), parallel, found).isEmpty();
+	}
+
+	/**
+	* Gets E and F over a single AttributeDictionary. Lists of different schemas
+	* are interned by attribute name into a new dictionary, as the ids of one
+	* schema mean other attributes in another.
+	* @param E An ArrayList of Functional Dependency.
+	* @param F An ArrayList of Functional Dependency.
+	* @return E and F, as they are when they share a dictionary.
+	*/
+	private static ArrayList<ArrayList<FunctionalDependency>> sameDictionary(ArrayList<FunctionalDependency> E, ArrayList<FunctionalDependency> F){
+		ArrayList<ArrayList<FunctionalDependency>> lists = new ArrayList<ArrayList<FunctionalDependency>>();
+		if(AttributeDictionary.sharedByFunctionalDependencies(E, F) == null){
+			AttributeDictionary dictionary = new AttributeDictionary();
+			lists.add(dictionary.internFunctionalDependencies(E));
+			lists.add(dictionary.internFunctionalDependencies(F));
+		} else {
+			lists.add(E);
+			lists.add(F);
+		}
+		return lists;
+	}
+
+	/**
+	* Finds the FDs of a list the engine does not imply.
+	* @param funcDeps The FDs to report.
+	* @param tested The FDs to test, funcDeps over the dictionary of the engine.
+	* @param engine The ClosureEngine of the other list.
+	* @param parallel Whether to test the FDs in parallel.
+	* @param found Set once an FD is not implied, to stop all the tests; null to test every FD.
+	* @return The FDs not implied, in the order of the list.
+	*/
+	private static ArrayList<FunctionalDependency> notImplied(ArrayList<FunctionalDependency> funcDeps, ArrayList<FunctionalDependency> tested, ClosureEngine engine, boolean parallel, AtomicBoolean found){
+		ImplicationCheck check = new ImplicationCheck(tested, engine, found);
+		if(parallel){
+			Utils.invoke(Utils.currentPool(), check.new CheckTask(0, tested.size()));
+		} else {
+			check.test(engine, 0, tested.size());
+		}
+		ArrayList<FunctionalDependency> notImplied = new ArrayList<FunctionalDependency>();
+		for(int i=0; i<funcDeps.size(); i++){
+			if(check.notImplied[i]){
+				notImplied.add(funcDeps.get(i));
+			}
+		}
+		return notImplied;
+	}
+
+	/**
+	* Checks if the two lists are equivalent.
+	* @return A boolean value
+	*/
+	public boolean isEquivalent(){
+		return this.notImpliedByF.isEmpty() && this.notImpliedByE.isEmpty();
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* A string representation of the FDs missing from each side.
+	*/
+	public String toString(){
+		return "Not implied by F: " + this.notImpliedByF + "\nNot implied by E: " + this.notImpliedByE;
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public ArrayList<FunctionalDependency> getNotImpliedByF(){
+		return this.notImpliedByF;
+	}
+	public ArrayList<FunctionalDependency> getNotImpliedByE(){
+		return this.notImpliedByE;
+	}
+
+	/**
+	 * The ImplicationCheck tests the FDs of a list against the ClosureEngine
+	 * of another list, marking the ones that are not implied.
+	 */
+	private static final class ImplicationCheck{
+		/**
+		* The FDs to test.
+		*/
+		private ArrayList<FunctionalDependency> funcDeps;
+		/**
+		* For every FD, whether it is not implied.
+		*/
+		private boolean[] notImplied;
+		/**
+		* Set once an FD is not implied when stopping early, else null.
+		*/
+		private AtomicBoolean found;
+		/**
+		* The ClosureEngine of each worker thread.
+		*/
+		private ThreadLocal<ClosureEngine> engines;
+
+		private ImplicationCheck(ArrayList<FunctionalDependency> funcDeps, final ClosureEngine engine, AtomicBoolean found){
+			this.funcDeps = funcDeps;
+			this.notImplied = new boolean[funcDeps.size()];
+			this.found = found;
+			this.engines = new ThreadLocal<ClosureEngine>(){
+				protected ClosureEngine initialValue(){
+					return engine.copy();
+				}
+			};
+		}
+
+		/**
+		* Tests a range of FDs with the given engine.
+		*/
+		private void test(ClosureEngine engine, int from, int to){
+			for(int i=from; i<to; i++){
+				if(this.found != null && this.found.get()){
+					return;
+				}
+				FunctionalDependency f = this.funcDeps.get(i);
+				if(!engine.implies(new AttributeSet(f.getLeftSideAttributes()), new AttributeSet(f.getRightSideAttributes()))){
+					this.notImplied[i] = true;
+					if(this.found != null){
+						this.found.set(true);
+					}
+				}
+			}
+		}
+
+		/**
+		 * The CheckTask tests a range of FDs, splitting the range in halves while it is large.
+		 */
+		private final class CheckTask extends RecursiveAction{
+			private static final long serialVersionUID = 1L;
+			/**
+			* The first FD of the range.
+			*/
+			private int from;
+			/**
+			* The FD after the last one of the range.
+			*/
+			private int to;
+
+			private CheckTask(int from, int to){
+				this.from = from;
+				this.to = to;
+			}
+
+			protected void compute(){
+				if(this.to - this.from <= SEQUENTIAL_FDS){
+					ImplicationCheck.this.test(ImplicationCheck.this.engines.get(), this.from, this.to);
+					return;
+				}
+				int middle = (this.from + this.to) >>> 1;
+				RecursiveAction.invokeAll(new CheckTask(this.from, middle), new CheckTask(middle, this.to));
+			}
+		}
+	}
+}
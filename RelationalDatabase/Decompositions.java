@@ -141,15 +141,18 @@ public class Decompositions{
 
 			Iterator<FunctionalDependency> itr1 = partialFuncDeps.iterator();
 			while(itr1.hasNext()){
+				Decompositions.checkpoint(relation);
 				FunctionalDependency fd = itr1.next();
-				if(fd.getNormalForm() < 2){
+				// An FD an earlier 2NF relation took is no longer in partialFuncDeps, and
+				// it's closure there can miss it's own RHS
+				if(fd.getNormalForm() < 2 && partialFuncDeps.contains(fd)){
 					// System.out.println("fd = " + fd);
-					Closure c = Closure.computeClosure(fd.getLeftSideAttributes(), partialFuncDeps);
+					Closure c = Closure.computeClosure(fd.getLeftSideAttributes(), partialFuncDeps, relation.getClosureCache());
 					twoNFAttr.addAll(c.getRightSide());
 					twoNFFDs.add(fd);
 					// System.out.println("2NF FDs: " + twoNFFDs);
 					// System.out.println("I'm creating relation with attributes: " +twoNFAttr + " and FDs: " + twoNFFDs);
-					Relation rY = new Relation(twoNFAttr, new ArrayList<FunctionalDependency>(twoNFFDs));
+					Relation rY = Decompositions.inherit(relation, new Relation(twoNFAttr, new ArrayList<FunctionalDependency>(twoNFFDs)));
 					for(Attribute a : rY.getNonKeyAttributes()){
 						if(c.getRightSide().contains(a)){
 							fullFDAttributes.remove(a);
@@ -173,7 +176,11 @@ public class Decompositions{
 						}
 					}
 					// System.out.println("I'm creating relation with attributes: " +twoNFAttr + " and FDs: " + twoNFFDs);
-					twoNFRelations.add(new Relation(twoNFAttr, new ArrayList<FunctionalDependency>(twoNFFDs)));
+					Relation twoNFRelation = Decompositions.inherit(relation, new Relation(twoNFAttr, new ArrayList<FunctionalDependency>(twoNFFDs)));
+					// The FDs are shared with partialFuncDeps, whose remaining entries are
+					// skipped below once the new relation has classified them
+					twoNFRelation.getNormalForm();
+					twoNFRelations.add(twoNFRelation);
 					// twoNFRelations.add(new Relation(twoNFAttr, twoNFFDs));
 					partialFuncDeps.removeAll(twoNFFDs);
 					// System.out.println(twoNFFDs + "	Before removing from remaltionFDs " +  relationFDs);
@@ -197,7 +204,7 @@ public class Decompositions{
 					// f.getRightSideAttributes().removeAll(fdRightSideAttributes);
 				}
 				// System.out.println("I'm creating relation with attributes: " +fullFDAttributes + " and FDs: " + relationFDs);
-				twoNFRelations.add(new Relation(fullFDAttributes, new ArrayList<FunctionalDependency>(relationFDs)));
+				twoNFRelations.add(Decompositions.inherit(relation, new Relation(fullFDAttributes, new ArrayList<FunctionalDependency>(relationFDs))));
 			}
 			return twoNFRelations;
 		}
@@ -247,7 +254,7 @@ public class Decompositions{
 				finsihedAttributes.addAll(f.getRightSideAttributes());
 				attributes.addAll(f.getLeftSideAttributes());
 				attributes.addAll(f.getRightSideAttributes());
-				threeNFRelations.add(new Relation(attributes, f.getLeftSideAttributes(), f.getRightSideAttributes()));
+				threeNFRelations.add(Decompositions.inherit(relation, new Relation(attributes, f.getLeftSideAttributes(), f.getRightSideAttributes())));
 				itr.remove();
 				attributes.clear();
 				// minimalCover.remove(f);
@@ -255,9 +262,9 @@ public class Decompositions{
 		}
 		relationAttributes.removeAll(finsihedAttributes);
 		if(!relationAttributes.isEmpty()){
-			Iterator<FunctionalDependency> itr = minimalCover.iterator();
-				while(itr.hasNext()){
-					FunctionalDependency f = itr.next();
+			Iterator<FunctionalDependency> itr1 = minimalCover.iterator();
+				while(itr1.hasNext()){
+					FunctionalDependency f = itr1.next();
 					// if(!fullFDAttributes.containsAll(f.getLeftSideAttributes()) && !fullFDAttributes.containsAll(f.getRightSideAttributes())){
 					// 	itr.remove();
 					// }
@@ -266,7 +273,7 @@ public class Decompositions{
 					// f.getRightSideAttributes().removeAll(fdRightSideAttributes);
 				}
 			// threeNFRelations.add(new Relation(relationAttributes, new ArrayList<Attribute>(relationAttributes), new ArrayList<Attribute>(relationAttributes)));
-			threeNFRelations.add(new Relation(relationAttributes, minimalCover));
+			threeNFRelations.add(Decompositions.inherit(relation, new Relation(relationAttributes, minimalCover)));
 		}
 		ArrayList<ArrayList<Attribute>> candidate_key = relation.getCandidateKeys();
 		boolean exists = false;
@@ -283,12 +290,32 @@ public class Decompositions{
 			}
 		}
 		if(!exists){
-			threeNFRelations.add(new Relation(new HashSet<Attribute>(candidate_key.get(0)), null));
+			threeNFRelations.add(Decompositions.inherit(relation, new Relation(new HashSet<Attribute>(candidate_key.get(0)), null)));
 		}
 		return threeNFRelations;
 	}
 
 
+	/** 
+	* Synthesizes 3rd Normal Form schemas from the canonical cover of a relation
+	* in polynomial time, without analysing the fragments.
+	* @param relation A Relation Class object we wish to decompose to 3NF.
+	* @return The ThreeNFSynthesis whose fragments are created when asked for.
+	*/
+	public static ThreeNFSynthesis synthesize3NFScheme(Relation relation){
+		return new ThreeNFSynthesis(relation);
+	}
+
+	/** 
+	* Splits a relation into Boyce-Codd Normal Form fragments whose FDs are
+	* projected from the closures of the relation, so implied FDs are kept.
+	* @param relation A Relation Class object we wish to decompose to BCNF.
+	* @return The BCNFDecomposition whose fragments are created when asked for.
+	*/
+	public static BCNFDecomposition splitIntoBCNFScheme(Relation relation){
+		return new BCNFDecomposition(relation);
+	}
+
 	// public ArrayList<Relation> decompose2NFInto3NFScheme(Relation mainRelation, Relation twoNFRelation){
 	// 	Relation relationCopy = mainRelation.getRelationCopy();
 	// 	ArrayList<Relation> twoNFRelations = mainRelation.get2NFRelations();
@@ -387,6 +414,7 @@ public class Decompositions{
 		bcNFRelations.add(relation);
 		Iterator<Relation> itr = bcNFRelations.iterator();
 		while(itr.hasNext()){
+			Decompositions.checkpoint(relation);
 			Relation r = itr.next();
 			// itr.remove();
 			relationDustbin.add(r);
@@ -404,7 +432,7 @@ public class Decompositions{
 						relationOneAttributes.addAll(fd.getLeftSideAttributes());
 						relationOneAttributes.addAll(fd.getRightSideAttributes());
 						fdRightSideDustBin.addAll(fd.getRightSideAttributes());
-						bcNFRelations.add(new Relation(relationOneAttributes, fd.getLeftSideAttributes(), fd.getRightSideAttributes()));
+						bcNFRelations.add(Decompositions.inherit(relation, new Relation(relationOneAttributes, fd.getLeftSideAttributes(), fd.getRightSideAttributes())));
 						itrFD.remove();
 						// 
 					}
@@ -429,9 +457,9 @@ public class Decompositions{
 							}
 						}
 					}
-					bcNFRelations.add(new Relation(relationTwoAttributes, funcDepsTwo));
+					bcNFRelations.add(Decompositions.inherit(relation, new Relation(relationTwoAttributes, funcDepsTwo)));
 				} else {
-					bcNFRelations.add(new Relation(relationTwoAttributes, funcDepsTwo));
+					bcNFRelations.add(Decompositions.inherit(relation, new Relation(relationTwoAttributes, funcDepsTwo)));
 				}
 
 				// 		bcNFRelations.add(new Relation(relationTwoAttributes, funcDepsTwo));
@@ -443,6 +471,27 @@ public class Decompositions{
 		return new ArrayList<Relation>(bcNFRelations);
 	}
 
+	/**
+	* Gives a decomposed relation the analysis context of the relation it came from.
+	* @param relation The relation being decomposed.
+	* @param decomposed A relation of it's decomposition.
+	* @return The decomposed relation.
+	*/
+	private static Relation inherit(Relation relation, Relation decomposed){
+		decomposed.setAnalysisContext(relation.getAnalysisContext());
+		return decomposed;
+	}
+
+	/**
+	* Throws if the analysis context of the relation is cancelled or out of time.
+	* @param relation The relation being decomposed.
+	*/
+	private static void checkpoint(Relation relation){
+		if(relation.getAnalysisContext() != null){
+			relation.getAnalysisContext().checkpoint();
+		}
+	}
+
 	/** 
 	* Generates a string from the set of Attribute objects of a relation
 	* @param attributes A Set of Attribute class objects
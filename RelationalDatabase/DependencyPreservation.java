@@ -0,0 +1,128 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The DependencyPreservation checks if a decomposition of a relation
+ * preserves it's Functional Dependencies, without projecting F+ onto the
+ * fragments.<br>
+ * An FD X-&gt;Y is preserved when the FDs of the fragments imply it. That
+ * holds exactly when Y is in the set Z grown from X by Z := Z U ((Z n Ri)+ n Ri)
+ * over the fragments Ri until Z stops growing, with every closure taken
+ * against the FDs of the relation. Each FD needs at most one round per
+ * attribute of the relation, so the check is polynomial.
+ */
+public class DependencyPreservation{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The FDs of the relation that the fragments do not imply.
+	*/
+	private ArrayList<FunctionalDependency> lost;
+	/**
+	* The number of FDs checked.
+	*/
+	private int noOfFDs;
+
+	///////////////////////// Class Constructors /////////////////////////
+	private DependencyPreservation(ArrayList<FunctionalDependency> lost, int noOfFDs){
+		this.lost = lost;
+		this.noOfFDs = noOfFDs;
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Checks if the decomposed relations preserve the FDs of the relation.
+	* The attributes of a decomposed relation of another schema are matched
+	* to the attributes of the relation by name.
+	* @param relation The relation that was decomposed.
+	* @param decomposition The relations it was decomposed into, eg: {@link Relation#getDecomposition()}.
+	* @return The DependencyPreservation with the FDs that are lost.
+	* @throws IllegalArgumentException if a decomposed relation has an attribute the relation does not.
+	*/
+	public static DependencyPreservation check(Relation relation, ArrayList<Relation> decomposition){
+		return DependencyPreservation.checkFragments(relation, Utils.fragmentsOf(relation, decomposition));
+	}
+
+	/**
+	* Checks if the projections of a relation onto the fragments preserve it's FDs.
+	* @param relation The relation that was decomposed.
+	* @param fragments The attributes of every fragment.
+	* @return The DependencyPreservation with the FDs that are lost.
+	*/
+	public static DependencyPreservation checkFragments(Relation relation, List<AttributeSet> fragments){
+		ArrayList<FunctionalDependency> lost = new ArrayList<FunctionalDependency>();
+		ArrayList<FunctionalDependency> funcDeps = relation.getFunctionalDependencies();
+		if(funcDeps == null){
+			return new DependencyPreservation(lost, 0);
+		}
+		ClosureEngine engine = relation.getClosureEngine();
+		AnalysisContext context = relation.getAnalysisContext();
+		for(FunctionalDependency f : funcDeps){
+			if(context != null){
+				context.checkpoint();
+			}
+			AttributeSet left = new AttributeSet(f.getLeftSideAttributes());
+			AttributeSet right = new AttributeSet(f.getRightSideAttributes());
+			if(!DependencyPreservation.reaches(left, right, fragments, engine)){
+				lost.add(f);
+			}
+		}
+		return new DependencyPreservation(lost, funcDeps.size());
+	}
+
+	/**
+	* Grows X through the fragments until it holds Y or stops growing.
+	* @param left X, the LHS of the FD.
+	* @param right Y, the RHS of the FD.
+	* @param fragments The attributes of every fragment.
+	* @param engine The ClosureEngine of the FDs of the relation.
+	* @return true if the fragments imply X-&gt;Y.
+	*/
+	private static boolean reaches(AttributeSet left, AttributeSet right, List<AttributeSet> fragments, ClosureEngine engine){
+		AttributeSet z = new AttributeSet(left);
+		boolean grown = true;
+		while(grown && !z.containsAll(right)){
+			grown = false;
+			for(AttributeSet fragment : fragments){
+				AttributeSet inside = new AttributeSet(z);
+				inside.retainAll(fragment);
+				AttributeSet closure = engine.computeClosure(inside);
+				closure.retainAll(fragment);
+				if(z.addAll(closure)){
+					grown = true;
+					if(z.containsAll(right)){
+						return true;
+					}
+				}
+			}
+		}
+		return z.containsAll(right);
+	}
+
+	/**
+	* Checks if every FD is preserved.
+	* @return A boolean value
+	*/
+	public boolean isPreserved(){
+		return this.lost.isEmpty();
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* A string representation of the verdict and the lost FDs.
+	*/
+	public String toString(){
+		if(this.isPreserved()){
+			return "All " + this.noOfFDs + " FDs preserved";
+		}
+		return this.lost.size() + " of " + this.noOfFDs + " FDs lost: " + this.lost;
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public ArrayList<FunctionalDependency> getLostFunctionalDependencies(){
+		return this.lost;
+	}
+	public int getNoOfFDs(){
+		return this.noOfFDs;
+	}
+}
@@ -0,0 +1,240 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The FDProjection projects the Functional Dependencies of a relation onto
+ * a fragment of it's attributes and finds the LHS of a BCNF violation in a
+ * fragment, both against the closures of the whole relation.<br>
+ * An exact projection needs the closure of every subset of the fragment,
+ * so subsets are tried by size upto a bound on the size of the LHS. The
+ * closures of a size are kept to seed those of the next size, subsets
+ * holding a key of the fragment are skipped, and an FD is only emitted for
+ * the attributes the smaller subsets did not already determine. A search
+ * that stops at the bound records that it's result may be incomplete.
+ */
+public class FDProjection{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The largest LHS tried by every FDProjection created afterwards.
+	*/
+	private static int defaultMaxLeftSize = 3;
+	/**
+	* The ClosureEngine of the Functional Dependencies of the relation.
+	*/
+	private ClosureEngine engine;
+	/**
+	* The largest LHS tried.
+	*/
+	private int maxLeftSize;
+	/**
+	* Whether the last projection or search stopped at the bound, overwritten
+	* by the next one.
+	*/
+	private boolean truncated;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates a projection against the FDs of an engine with the default bound.
+	* @param engine The ClosureEngine of the relation, copied for the projection.
+	*/
+	public FDProjection(ClosureEngine engine){
+		this(engine, FDProjection.defaultMaxLeftSize);
+	}
+
+	/**
+	* Creates a projection against the FDs of an engine.
+	* @param engine The ClosureEngine of the relation, copied for the projection.
+	* @param maxLeftSize The largest LHS to try.
+	*/
+	public FDProjection(ClosureEngine engine, int maxLeftSize){
+		// Most subsets are visited once, so caching would only evict the closures of the relation
+		this.engine = engine.copy();
+		this.engine.setCache(null);
+		this.maxLeftSize = maxLeftSize;
+		this.truncated = false;
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Projects the FDs onto a fragment, giving a cover of the FDs X-&gt;Y with
+	* X and Y inside the fragment and X no larger than the bound.
+	* @param fragment The attributes of the fragment.
+	* @return The RHS of every emitted FD by it's LHS, in the order they were found.
+	*/
+	public LinkedHashMap<AttributeSet, AttributeSet> project(AttributeSet fragment){
+		LinkedHashMap<AttributeSet, AttributeSet> funcDeps = new LinkedHashMap<AttributeSet, AttributeSet>();
+		ArrayList<AttributeSet> keys = new ArrayList<AttributeSet>();
+		int[] ids = FDProjection.ids(fragment);
+		int n = ids.length;
+		// The closures inside the fragment of the subsets of the previous size
+		HashMap<AttributeSet, AttributeSet> previous = new HashMap<AttributeSet, AttributeSet>();
+		AttributeSet empty = new AttributeSet();
+		previous.put(empty, this.closureIn(empty, fragment));
+		int maxSize = Math.min(this.maxLeftSize, n - 1);
+		for(int size=1; size<=maxSize; size++){
+			HashMap<AttributeSet, AttributeSet> current = new HashMap<AttributeSet, AttributeSet>();
+			int[] positions = FDProjection.firstCombination(size);
+			do{
+				AttributeSet left = FDProjection.subset(ids, positions);
+				if(CandidateKeyFinder.holdsKey(left, keys)){
+					continue;
+				}
+				// The attributes the smaller subsets determine are already covered
+				AttributeSet implied = new AttributeSet(left);
+				for(int p : positions){
+					left.remove(ids[p]);
+					AttributeSet closure = previous.get(left);
+					if(closure != null){
+						implied.addAll(closure);
+					}
+					left.add(ids[p]);
+				}
+				AttributeSet closure = this.closureIn(implied, fragment);
+				if(closure.equals(fragment)){
+					keys.add(left);
+				}
+				current.put(left, closure);
+				AttributeSet right = new AttributeSet(closure);
+				right.removeAll(implied);
+				if(!right.isEmpty()){
+					funcDeps.put(left, right);
+				}
+			} while(CandidateKeyFinder.nextCombination(positions, n));
+			previous = current;
+		}
+		this.truncated = maxSize < n - 1;
+		return funcDeps;
+	}
+
+	/**
+	* Finds an X inside a fragment that determines some other attributes of
+	* the fragment but not all of them, so that X-&gt;(X+ - X) violates BCNF.<br>
+	* The LHS of every FD inside the fragment is tried first. Then every pair
+	* A, B of the fragment is tried: without a pair whose A is in the closure
+	* of the fragment less A and B the fragment is in BCNF, and when such a
+	* closure lacks B the fragment less A and B is a violation. Only then are
+	* the subsets tried by size upto the bound.
+	* @param fragment The attributes of the fragment.
+	* @return The LHS of a violation, null if none was found.
+	*/
+	public AttributeSet findViolation(AttributeSet fragment){
+		this.truncated = false;
+		int[] ids = FDProjection.ids(fragment);
+		int n = ids.length;
+		if(n <= 2){
+			return null;
+		}
+		for(int fd=0; fd<this.engine.getNoOfFDs(); fd++){
+			AttributeSet left = this.engine.getLeftSide(fd);
+			if(fragment.containsAll(left) && FDProjection.violates(left, this.closureIn(left, fragment), fragment)){
+				return new AttributeSet(left);
+			}
+		}
+		boolean pairFound = false;
+		for(int a : ids){
+			for(int b : ids){
+				if(a == b){
+					continue;
+				}
+				AttributeSet rest = new AttributeSet(fragment);
+				rest.remove(a);
+				rest.remove(b);
+				AttributeSet closure = this.closureIn(rest, fragment);
+				if(closure.contains(a)){
+					if(!closure.contains(b)){
+						return rest;
+					}
+					pairFound = true;
+				}
+			}
+		}
+		if(!pairFound){
+			return null;
+		}
+		ArrayList<AttributeSet> keys = new ArrayList<AttributeSet>();
+		int maxSize = Math.min(this.maxLeftSize, n - 2);
+		for(int size=1; size<=maxSize; size++){
+			int[] positions = FDProjection.firstCombination(size);
+			do{
+				AttributeSet left = FDProjection.subset(ids, positions);
+				if(CandidateKeyFinder.holdsKey(left, keys)){
+					continue;
+				}
+				AttributeSet closure = this.closureIn(left, fragment);
+				if(closure.equals(fragment)){
+					keys.add(left);
+				} else if(FDProjection.violates(left, closure, fragment)){
+					return left;
+				}
+			} while(CandidateKeyFinder.nextCombination(positions, n));
+		}
+		this.truncated = maxSize < n - 2;
+		return null;
+	}
+
+	/**
+	* Computes the closure of the attributes inside the fragment.
+	*/
+	private AttributeSet closureIn(AttributeSet attributes, AttributeSet fragment){
+		AttributeSet closure = this.engine.computeClosure(attributes);
+		closure.retainAll(fragment);
+		return closure;
+	}
+
+	///////////////////////// Helper Methods /////////////////////////
+	/**
+	* Checks if X determines more than itself but not the whole fragment.
+	*/
+	private static boolean violates(AttributeSet left, AttributeSet closure, AttributeSet fragment){
+		return closure.size() > left.size() && !closure.equals(fragment);
+	}
+
+	/**
+	* Lists the ids of an AttributeSet.
+	*/
+	private static int[] ids(AttributeSet set){
+		int[] ids = new int[set.size()];
+		int i = 0;
+		for(int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1)){
+			ids[i++] = id;
+		}
+		return ids;
+	}
+
+	/**
+	* The positions of the first combination of a size.
+	*/
+	private static int[] firstCombination(int size){
+		int[] positions = new int[size];
+		for(int i=0; i<size; i++){
+			positions[i] = i;
+		}
+		return positions;
+	}
+
+	/**
+	* The AttributeSet of the ids at the given positions.
+	*/
+	private static AttributeSet subset(int[] ids, int[] positions){
+		AttributeSet subset = new AttributeSet();
+		for(int p : positions){
+			subset.add(ids[p]);
+		}
+		return subset;
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public int getMaxLeftSize(){
+		return this.maxLeftSize;
+	}
+	public boolean isTruncated(){
+		return this.truncated;
+	}
+	public static int getDefaultMaxLeftSize(){
+		return FDProjection.defaultMaxLeftSize;
+	}
+	public static void setDefaultMaxLeftSize(int maxLeftSize){
+		FDProjection.defaultMaxLeftSize = maxLeftSize;
+	}
+}
@@ -119,9 +119,16 @@ public class FunctionalDependency{
 	* @param candidate_key The ArrayList of Candidate Keys of the relation
 	*/
 	public void computeNormalForm(ArrayList<Attribute> keyAttributes, ArrayList<Attribute> nonKeyAttributes, ArrayList<ArrayList<Attribute>> candidate_key){				
+		ArrayList<AttributeSet> keys = new ArrayList<AttributeSet>(candidate_key.size());
+		for(ArrayList<Attribute> k : candidate_key){
+			keys.add(new AttributeSet(k));
+		}
+		AttributeSet nonKeys = new AttributeSet(nonKeyAttributes);
+		AttributeSet left = new AttributeSet(this.x);
+		AttributeSet right = new AttributeSet(this.y);
 		// 2NF Checking
 		boolean is2NF;
-		if(isPartialKey(this.x, nonKeyAttributes, candidate_key) && !areAllKeyAttributes(this.y, nonKeyAttributes)){
+		if(isPartialKey(left, keys) && !areAllKeyAttributes(right, nonKeys)){
 			is2NF = false;
 		} else {
 			is2NF = true;
@@ -142,14 +149,14 @@ public class FunctionalDependency{
 
 		// 3NF Checking
 		if(this.normalForm == 2){
-			if((isFullKey(this.x, candidate_key)) || (isFullKey(this.y, candidate_key) || (isPartialKey(this.y, nonKeyAttributes, candidate_key) && !isNonKeyAttribute(this.y, nonKeyAttributes)))){
+			if((isFullKey(left, keys)) || (isFullKey(right, keys) || (isPartialKey(right, keys) && !isNonKeyAttribute(this.y, nonKeys)))){
 				// System.out.println("Setting 3NF");
 				this.normalForm = 3;
 			}
 		}
 		// BC NF Checking
 		if(this.normalForm == 3){
-			if(isFullKey(this.x, candidate_key)){
+			if(isFullKey(left, keys)){
 				// System.out.println("Setting BCNF");
 				this.normalForm = 4;
 			}
@@ -157,25 +164,54 @@ public class FunctionalDependency{
 	}
 
 	/** 
-	* Checks whether the list of Attributes form a key of the relation.
-	* @param attributes The ArrayList of Attributes to check if it is a key
-	* @param candidate_key The ArrayList of Candidate Keys of the relation
+	* Determines the Normal Form of the Functional Dependency from the closure
+	* of it's LHS and the prime attribute oracle of the relation, without
+	* listing the candidate keys.
+	* @param relation The relation to classify the FD against
+	*/
+	public void computeNormalForm(Relation relation){
+		AttributeSet left = new AttributeSet(this.x);
+		AttributeSet right = new AttributeSet(this.y);
+		right.removeAll(left);
+		// BCNF Checking: trivial or the LHS is a super key
+		if(right.isEmpty() || relation.getClosureEngine().implies(left, relation.getAttributeSet())){
+			this.normalForm = 4;
+			return;
+		}
+		// 3NF Checking: every attribute inferred is prime
+		boolean allPrime = true;
+		for(Attribute a : this.y){
+			if(right.contains(a) && !relation.isPrime(a)){
+				allPrime = false;
+				break;
+			}
+		}
+		if(allPrime){
+			this.normalForm = 3;
+			return;
+		}
+		// 2NF Checking: a non prime attribute is inferred by part of a key
+		this.normalForm = relation.isInSomeKey(left) ? 1 : 2;
+	}
+
+	/** 
+	* Checks whether the set of Attributes form a key of the relation.
+	* @param attributes The AttributeSet to check if it is a key
+	* @param candidate_key The Candidate Keys of the relation as AttributeSets
 	* @return A boolean value
 	*/
-	private boolean isFullKey(ArrayList<Attribute> attributes, ArrayList<ArrayList<Attribute>> candidate_key){
+	private boolean isFullKey(AttributeSet attributes, ArrayList<AttributeSet> candidate_key){
 		return candidate_key.contains(attributes);
 	}
 
 	/** 
-	* Checks whether the list of Attributes are a partial key of the relation.
-	* @param attributes The ArrayList of Attributes to check if it is a partial key
-	* @param nonKeyAttributes The ArrayList of Non Key Attributes of the relation
-	* @param candidate_key The ArrayList of Candidate Keys of the relation
+	* Checks whether the set of Attributes are a partial key of the relation.
+	* @param attributes The AttributeSet to check if it is a partial key
+	* @param candidate_key The Candidate Keys of the relation as AttributeSets
 	* @return A boolean value
 	*/
-	private boolean isPartialKey(ArrayList<Attribute> attributes, ArrayList<Attribute> nonKeyAttributes, ArrayList<ArrayList<Attribute>> candidate_key){
-		for(ArrayList<Attribute> k : candidate_key){
-			// System.out.println("Key is: " + k + " and Attr: " + attributes + " and Attr E Key: " + k.containsAll(attributes) + " and are equal: " + k.equals(attributes));
+	private boolean isPartialKey(AttributeSet attributes, ArrayList<AttributeSet> candidate_key){
+		for(AttributeSet k : candidate_key){
 			if(k.containsAll(attributes) && !k.equals(attributes)){
 				return true;
 			}
@@ -197,10 +233,10 @@ public class FunctionalDependency{
 	/** 
 	* Checks whether the list of Attributes is not a key of the relation.
 	* @param attributes The ArrayList of Attributes to check if it is a partial key
-	* @param nonKeyAttributes The ArrayList of Non Key Attributes of the relation
+	* @param nonKeyAttributes The Non Key Attributes of the relation as an AttributeSet
 	* @return A boolean value
 	*/
-	private boolean isNonKeyAttribute(ArrayList<Attribute> attributes, ArrayList<Attribute> nonKeyAttributes){
+	private boolean isNonKeyAttribute(ArrayList<Attribute> attributes, AttributeSet nonKeyAttributes){
 		boolean isNonKey = true;
 		for(Attribute a : attributes){
 			if(nonKeyAttributes.contains(a)){
@@ -213,19 +249,13 @@ public class FunctionalDependency{
 	}
 
 	/** 
-	* Checks whether all the Attributes in the list of Attributes is a Key Attribute of the relation.
-	* @param attributes The ArrayList of Attributes to check if it is a partial key
-	* @param nonKeyAttributes The ArrayList of Non Key Attributes of the relation
+	* Checks whether all the Attributes in the set of Attributes is a Key Attribute of the relation.
+	* @param attributes The AttributeSet to check if it is a partial key
+	* @param nonKeyAttributes The Non Key Attributes of the relation as an AttributeSet
 	* @return A boolean value
 	*/
-	private boolean areAllKeyAttributes(ArrayList<Attribute> attributes, ArrayList<Attribute> nonKeyAttributes){
-		boolean isNonKey = true;
-		for(Attribute a : attributes){
-			if(nonKeyAttributes.contains(a)){
-				return false;
-			}
-		}
-		return true;
+	private boolean areAllKeyAttributes(AttributeSet attributes, AttributeSet nonKeyAttributes){
+		return !attributes.intersects(nonKeyAttributes);
 	}
 
 	/** 
@@ -262,6 +292,13 @@ public class FunctionalDependency{
 		return this.getLeftSideAttributes().equals(f.getLeftSideAttributes()) && this.getRightSideAttributes().equals(f.getRightSideAttributes());
 	}
 
+	/** 
+	* Hashes the LHS and RHS of the Functional Dependency.
+	*/
+	public int hashCode(){
+		return 31 * this.x.hashCode() + this.y.hashCode();
+	}
+
 	///////////////////////// Printing Methods /////////////////////////
 	/** 
 	* A string representation of Functional Dependency.
@@ -327,4 +364,12 @@ public class FunctionalDependency{
 	public int getNormalForm(){
 		return this.normalForm;
 	}
+
+	/** 
+	* Sets the Normal form of the FD, eg: back to 1 before classifying it again
+	* @param normalForm The Normal Form
+	*/
+	public void setNormalForm(int normalForm){
+		this.normalForm = normalForm;
+	}
 }
\ No newline at end of file
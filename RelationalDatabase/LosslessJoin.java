@@ -0,0 +1,279 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The LosslessJoin checks if a decomposition of a relation is a lossless
+ * join decomposition with the chase.<br>
+ * The tableau has a row per fragment and a column per attribute of the
+ * relation. A cell holds 0, the distinguished symbol, when the fragment has
+ * the attribute and a symbol of it's own otherwise. For every FD X-&gt;Y the
+ * rows are grouped by hashing their X symbols, and the Y symbols of the rows
+ * of a group are equated, keeping the smaller symbol so the distinguished
+ * one wins. The FDs are applied until nothing changes or a row becomes all
+ * distinguished, which is exactly when the join is lossless.
+ */
+public class LosslessJoin{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The symbol of the attributes a fragment has.
+	*/
+	public static final int DISTINGUISHED = 0;
+	/**
+	* The attributes of the relation, one per column.
+	*/
+	private ArrayList<Attribute> attributes;
+	/**
+	* The dictionary of the schema.
+	*/
+	private AttributeDictionary dictionary;
+	/**
+	* The attributes of every fragment, one per row.
+	*/
+	private ArrayList<AttributeSet> fragments;
+	/**
+	* The chased tableau, tableau[row][column].
+	*/
+	private int[][] tableau;
+	/**
+	* The first row that became all distinguished, -1 when the join is lossy.
+	*/
+	private int losslessRow;
+	/**
+	* The number of passes over the FDs.
+	*/
+	private int noOfPasses;
+
+	///////////////////////// Class Constructors /////////////////////////
+	private LosslessJoin(ArrayList<Attribute> attributes, AttributeDictionary dictionary, ArrayList<AttributeSet> fragments){
+		this.attributes = attributes;
+		this.dictionary = dictionary;
+		this.fragments = fragments;
+		this.losslessRow = -1;
+		this.noOfPasses = 0;
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Checks if the join of the decomposed relations gives back the relation.
+	* The attributes of a decomposed relation of another schema are matched
+	* to the attributes of the relation by name.
+	* @param relation The relation that was decomposed.
+	* @param decomposition The relations it was decomposed into.
+	* @return The LosslessJoin with the verdict and the chased tableau.
+	* @throws IllegalArgumentException if a decomposed relation has an attribute the relation does not.
+	*/
+	public static LosslessJoin check(Relation relation, ArrayList<Relation> decomposition){
+		return LosslessJoin.checkFragments(relation, Utils.fragmentsOf(relation, decomposition));
+	}
+
+	/**
+	* Checks if the join of the projections of a relation onto the fragments
+	* gives back the relation.
+	* @param relation The relation that was decomposed.
+	* @param fragments The attributes of every fragment.
+	* @return The LosslessJoin with the verdict and the chased tableau.
+	*/
+	public static LosslessJoin checkFragments(Relation relation, List<AttributeSet> fragments){
+		LosslessJoin join = new LosslessJoin(relation.getAttributes(), relation.getDictionary(), new ArrayList<AttributeSet>(fragments));
+		join.chase(relation.getClosureEngine(), relation.getAnalysisContext());
+		return join;
+	}
+
+	/**
+	* Builds the tableau and applies the FDs of the engine until it is lossless or stable.
+	*/
+	private void chase(ClosureEngine engine, AnalysisContext context){
+		int rows = this.fragments.size();
+		int columns = this.attributes.size();
+		int maxId = -1;
+		for(Attribute a : this.attributes){
+			maxId = Math.max(maxId, a.getId());
+		}
+		int[] column = new int[maxId + 1];
+		Arrays.fill(column, -1);
+		for(int j=0; j<columns; j++){
+			column[this.attributes.get(j).getId()] = j;
+		}
+
+		this.tableau = new int[rows][columns];
+		for(int i=0; i<rows; i++){
+			for(int j=0; j<columns; j++){
+				this.tableau[i][j] = this.fragments.get(i).contains(this.attributes.get(j)) ? DISTINGUISHED : i * columns + j + 1;
+			}
+		}
+
+		// The FDs as columns, leaving out the ones whose LHS reaches outside the relation
+		AttributeSet relation = new AttributeSet(this.attributes);
+		ArrayList<int[]> lefts = new ArrayList<int[]>();
+		ArrayList<int[]> rights = new ArrayList<int[]>();
+		for(int fd=0; fd<engine.getNoOfFDs(); fd++){
+			AttributeSet right = new AttributeSet(engine.getRightSide(fd));
+			right.removeAll(engine.getLeftSide(fd));
+			right.retainAll(relation);
+			int[] left = LosslessJoin.columns(engine.getLeftSide(fd), column);
+			int[] rightColumns = LosslessJoin.columns(right, column);
+			if(left != null && rightColumns.length > 0){
+				lefts.add(left);
+				rights.add(rightColumns);
+			}
+		}
+
+		this.losslessRow = this.findLosslessRow();
+		boolean changed = true;
+		while(changed && this.losslessRow < 0){
+			changed = false;
+			this.noOfPasses++;
+			for(int fd=0; fd<lefts.size(); fd++){
+				if(context != null){
+					context.checkpoint();
+				}
+				if(this.apply(lefts.get(fd), rights.get(fd))){
+					changed = true;
+				}
+			}
+			this.losslessRow = this.findLosslessRow();
+		}
+	}
+
+	/**
+	* Applies an FD to the tableau in one pass over the rows.
+	* @return true if a symbol was changed.
+	*/
+	private boolean apply(int[] left, int[] right){
+		boolean changed = false;
+		HashMap<RowKey, Integer> groups = new HashMap<RowKey, Integer>();
+		for(int i=0; i<this.tableau.length; i++){
+			RowKey key = new RowKey(this.tableau[i], left);
+			Integer first = groups.get(key);
+			if(first == null){
+				groups.put(key, i);
+				continue;
+			}
+			for(int j : right){
+				int s = this.tableau[first][j];
+				int t = this.tableau[i][j];
+				if(s != t){
+					this.rename(j, Math.max(s, t), Math.min(s, t));
+					changed = true;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	* Replaces a symbol by another in every row of a column.
+	*/
+	private void rename(int j, int from, int to){
+		for(int[] row : this.tableau){
+			if(row[j] == from){
+				row[j] = to;
+			}
+		}
+	}
+
+	/**
+	* Finds the first row with every symbol distinguished.
+	*/
+	private int findLosslessRow(){
+		for(int i=0; i<this.tableau.length; i++){
+			boolean distinguished = true;
+			for(int symbol : this.tableau[i]){
+				if(symbol != DISTINGUISHED){
+					distinguished = false;
+					break;
+				}
+			}
+			if(distinguished){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	* Maps the ids of an AttributeSet to columns, null if one is not a column.
+	*/
+	private static int[] columns(AttributeSet set, int[] column){
+		int[] columns = new int[set.size()];
+		int i = 0;
+		for(int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1)){
+			if(id >= column.length || column[id] < 0){
+				return null;
+			}
+			columns[i++] = column[id];
+		}
+		return columns;
+	}
+
+	/**
+	* Checks if the join is lossless.
+	* @return A boolean value
+	*/
+	public boolean isLossless(){
+		return this.losslessRow >= 0;
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* The chased tableau with a for the distinguished symbols and b followed
+	* by the number of the symbol for the others.
+	*/
+	public String toString(){
+		StringBuilder s = new StringBuilder();
+		for(Attribute a : this.attributes){
+			s.append("\t" + a.getName());
+		}
+		for(int i=0; i<this.tableau.length; i++){
+			s.append("\n" + this.fragments.get(i).toAttributeList(this.dictionary));
+			for(int symbol : this.tableau[i]){
+				s.append((symbol == DISTINGUISHED) ? "\ta" : "\tb" + symbol);
+			}
+		}
+		s.append("\n" + (this.isLossless() ? "Lossless" : "Lossy"));
+		return s.toString();
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public int[][] getTableau(){
+		return this.tableau;
+	}
+	public ArrayList<Attribute> getAttributes(){
+		return this.attributes;
+	}
+	public ArrayList<AttributeSet> getFragments(){
+		return this.fragments;
+	}
+	public int getLosslessRow(){
+		return this.losslessRow;
+	}
+	public int getNoOfPasses(){
+		return this.noOfPasses;
+	}
+
+	/**
+	 * The RowKey is the symbols of a row in some columns, to group rows by.
+	 */
+	private static final class RowKey{
+		/**
+		* The symbols of the row in the key columns.
+		*/
+		private int[] symbols;
+
+		private RowKey(int[] row, int[] columns){
+			this.symbols = new int[columns.length];
+			for(int i=0; i<columns.length; i++){
+				this.symbols[i] = row[columns[i]];
+			}
+		}
+
+		public boolean equals(Object o){
+			return (o instanceof RowKey) && Arrays.equals(this.symbols, ((RowKey) o).symbols);
+		}
+
+		public int hashCode(){
+			return Arrays.hashCode(this.symbols);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package RelationalDatabase;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.*;
+
+/**
+ * The ParallelNormalizer decomposes the sibling relations of a level of the
+ * decomposition tree on a ForkJoinPool.<br>
+ * The relations of a level share no Functional Dependency and no lazily
+ * computed analysis, so every sibling is decomposed by a task of it's own.
+ * They do share three objects of the input relation, which are safe to use
+ * from many tasks: the {@link AttributeDictionary}, which the decompositions
+ * only read since the Attributes of every fragment are already interned; it's
+ * {@link ClosureCache}, whose methods are synchronized; and the
+ * {@link AnalysisContext}, which counts closures atomically and is cancelled
+ * through a volatile flag. Every task uses the same
+ * {@link Decompositions} scheme as the sequential path, and the task also
+ * analyses the fragments it produces. Every task writes it's fragments to
+ * the slot of it's sibling and the slots are joined in the order of the
+ * siblings, so the result does not depend on the order the tasks finish in.<br>
+ * The closures and redundant FDs a task computes run on the pool of the task
+ * too, so the parallelism of the pool bounds the whole decomposition.
+ */
+public class ParallelNormalizer{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The sibling relations to decompose.
+	*/
+	private List<Relation> relations;
+	/**
+	* The Normal Form to decompose to, 3 for 3NF or 4 for BCNF.
+	*/
+	private int normalForm;
+	/**
+	* The fragments of every sibling, null until it's task is done.
+	*/
+	private ArrayList<ArrayList<Relation>> decompositions;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Sets up the decomposition of the sibling relations.
+	* @param relations The sibling relations to decompose.
+	* @param normalForm The Normal Form to decompose to.
+	*/
+	private ParallelNormalizer(List<Relation> relations, int normalForm){
+		this.relations = relations;
+		this.normalForm = normalForm;
+		this.decompositions = new ArrayList<ArrayList<Relation>>(Collections.<ArrayList<Relation>>nCopies(relations.size(), null));
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Decomposes the sibling relations on the common pool.
+	* @param relations The sibling relations to decompose.
+	* @param normalForm The Normal Form to decompose to, 3 for 3NF or 4 for BCNF.
+	* @return The fragments of every sibling, in the order of the siblings.
+	*/
+	public static ArrayList<Relation> decompose(List<Relation> relations, int normalForm){
+		return ParallelNormalizer.decompose(relations, normalForm, ForkJoinPool.commonPool());
+	}
+
+	/**
+	* Decomposes the sibling relations on the given pool. A sibling already in
+	* the Normal Form is kept as it is, like the sequential path does.
+	* @param relations The sibling relations to decompose.
+	* @param normalForm The Normal Form to decompose to, 3 for 3NF or 4 for BCNF.
+	* @param pool The pool to run the tasks on, whose parallelism bounds the siblings decomposed at once.
+	* @return The fragments of every sibling, in the order of the siblings.
+	* @throws AnalysisAbortedException carrying the fragments of the siblings that were done.
+	*/
+	public static ArrayList<Relation> decompose(List<Relation> relations, int normalForm, ForkJoinPool pool){
+		if(normalForm != 3 && normalForm != 4){
+			throw new IllegalArgumentException("Cannot decompose into Normal Form " + normalForm);
+		}
+		ParallelNormalizer normalizer = new ParallelNormalizer(relations, normalForm);
+		try{
+			if(!relations.isEmpty()){
+				Utils.invoke(pool, normalizer.new SiblingTask(0, relations.size()));
+			}
+		} catch(AnalysisAbortedException e){
+			throw e.withPartialResult((normalForm == 3) ? "3NF relations" : "BCNF relations", normalizer.joinDecompositions());
+		}
+		return normalizer.joinDecompositions();
+	}
+
+	/**
+	* Decomposes a single sibling and analyses it's fragments.
+	* @param i The position of the sibling.
+	*/
+	private void decomposeSibling(int i){
+		Relation relation = this.relations.get(i);
+		AnalysisContext context = relation.getAnalysisContext();
+		if(context != null){
+			context.checkpoint();
+		}
+		ArrayList<Relation> fragments;
+		if(relation.getNormalForm() < this.normalForm){
+			fragments = (this.normalForm == 3) ? Decompositions.decomposeInto3NFScheme(relation) : Decompositions.decomposeIntoBCNFScheme(relation);
+			// The next level or the caller asks for these, so they are analysed while the pool is busy
+			for(Relation r : fragments){
+				r.getNormalForm();
+			}
+		} else {
+			fragments = new ArrayList<Relation>();
+			fragments.add(relation);
+		}
+		this.decompositions.set(i, fragments);
+	}
+
+	/**
+	* Joins the fragments of the siblings that are done, in the order of the siblings.
+	*/
+	private ArrayList<Relation> joinDecompositions(){
+		ArrayList<Relation> relations = new ArrayList<Relation>();
+		for(ArrayList<Relation> fragments : this.decompositions){
+			if(fragments != null){
+				relations.addAll(fragments);
+			}
+		}
+		return relations;
+	}
+
+	/**
+	 * The SiblingTask decomposes a range of siblings, splitting the range in
+	 * halves until it holds a single sibling.
+	 */
+	private final class SiblingTask extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+		/**
+		* The first sibling of the range.
+		*/
+		private int from;
+		/**
+		* The sibling after the last one of the range.
+		*/
+		private int to;
+
+		private SiblingTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute(){
+			if(this.to - this.from == 1){
+				ParallelNormalizer.this.decomposeSibling(this.from);
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			RecursiveAction.invokeAll(new SiblingTask(this.from, middle), new SiblingTask(middle, this.to));
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package RelationalDatabase;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.*;
+
+/**
+ * The RedundancyEliminator finds the redundant FDs of a large list of
+ * Functional Dependencies on a ForkJoinPool.<br>
+ * An FD the other FDs do not imply stays needed however many of the others
+ * are removed, so every FD is first tested against all the others in
+ * parallel, each worker thread with it's own copy of the ClosureEngine.
+ * Only the FDs that pass are candidates; they are then re-tested one at a
+ * time in list order against the FDs still kept, exactly as the sequential
+ * Step 4 of the Minimal Cover does. The result is the same on every run and
+ * the same as the sequential elimination.
+ */
+public class RedundancyEliminator{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* Ranges of upto this many FDs are tested by a single task.
+	*/
+	private static final int SEQUENTIAL_FDS = 64;
+	/**
+	* Lists with atleast this many FDs have their redundant FDs found in parallel.
+	*/
+	private static int parallelThreshold = 256;
+	/**
+	* For every FD, whether the other FDs imply it.
+	*/
+	private boolean[] candidates;
+	/**
+	* The ClosureEngine of each worker thread.
+	*/
+	private ThreadLocal<ClosureEngine> engines;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Sets up the search for the redundant FDs of an engine.
+	* @param engine The ClosureEngine each worker thread gets a copy of.
+	*/
+	private RedundancyEliminator(final ClosureEngine engine){
+		this.candidates = new boolean[engine.getNoOfFDs()];
+		this.engines = new ThreadLocal<ClosureEngine>(){
+			protected ClosureEngine initialValue(){
+				// Every test switches an FD off, which bypasses the cache anyway
+				ClosureEngine e = engine.copy();
+				e.setCache(null);
+				return e;
+			}
+		};
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Finds the redundant FDs of an engine on the pool of the calling task, or
+	* on the common pool when not called from one.
+	* @param engine The ClosureEngine of the FDs, with no FD switched off.
+	* @return For every FD in the order of the engine, whether it is removed.
+	*/
+	public static boolean[] findRedundant(ClosureEngine engine){
+		return RedundancyEliminator.findRedundant(engine, Utils.currentPool());
+	}
+
+	/**
+	* Finds the redundant FDs of an engine on the given pool. The redundant
+	* FDs are left switched off in the engine.
+	* @param engine The ClosureEngine of the FDs, with no FD switched off.
+	* @param pool The pool to run the tasks on.
+	* @return For every FD in the order of the engine, whether it is removed.
+	*/
+	public static boolean[] findRedundant(ClosureEngine engine, ForkJoinPool pool){
+		RedundancyEliminator eliminator = new RedundancyEliminator(engine);
+		int noOfFDs = engine.getNoOfFDs();
+		Utils.invoke(pool, eliminator.new RedundancyTask(0, noOfFDs));
+		boolean[] redundant = new boolean[noOfFDs];
+		for(int fd=0; fd<noOfFDs; fd++){
+			if(eliminator.candidates[fd]){
+				redundant[fd] = RedundancyEliminator.isImpliedByOthers(engine, fd);
+				engine.setDisabled(fd, redundant[fd]);
+			}
+		}
+		return redundant;
+	}
+
+	/**
+	* Checks if the FDs still switched on, other than the given one, imply it.
+	*/
+	private static boolean isImpliedByOthers(ClosureEngine engine, int fd){
+		engine.setDisabled(fd, true);
+		boolean implied = engine.implies(engine.getLeftSide(fd), engine.getRightSide(fd));
+		engine.setDisabled(fd, false);
+		return implied;
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public static int getParallelThreshold(){
+		return RedundancyEliminator.parallelThreshold;
+	}
+	public static void setParallelThreshold(int parallelThreshold){
+		RedundancyEliminator.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * The RedundancyTask tests a range of FDs against all the other FDs,
+	 * splitting the range in halves while it is large.
+	 */
+	private final class RedundancyTask extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+		/**
+		* The first FD of the range.
+		*/
+		private int from;
+		/**
+		* The FD after the last one of the range.
+		*/
+		private int to;
+
+		private RedundancyTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute(){
+			if(this.to - this.from <= SEQUENTIAL_FDS){
+				ClosureEngine engine = RedundancyEliminator.this.engines.get();
+				for(int fd=this.from; fd<this.to; fd++){
+					RedundancyEliminator.this.candidates[fd] = RedundancyEliminator.isImpliedByOthers(engine, fd);
+				}
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			RecursiveAction.invokeAll(new RedundancyTask(this.from, middle), new RedundancyTask(middle, this.to));
+		}
+	}
+}
@@ -1,6 +1,10 @@
 package RelationalDatabase;
 
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.*;
 
 /**
@@ -27,6 +31,14 @@ public class Relation {
 	*/
 	private ArrayList<Attribute> attributes;
 	/**
+	* The bitmask of the Attributes that belong to the Relation.
+	*/
+	private AttributeSet attributeSet;
+	/**
+	* The dictionary of the schema, shared with every relation decomposed from it.
+	*/
+	private AttributeDictionary dictionary;
+	/**
 	* The list of Attributes that belong to the Relation and not present in any FD.
 	*/
 	private ArrayList<Attribute> nonFDAttributes;
@@ -71,10 +83,18 @@ public class Relation {
 	*/
 	private ArrayList<FunctionalDependency> minimalCover;
 	/**
+	* The Canonical Cover of the Relation.
+	*/
+	private CanonicalCover canonicalCover;
+	/**
 	* The list of the Closures of all combinatiions of the attributes of the Relation.
 	*/
 	private ArrayList<Closure> closures;
 	/**
+	* The ClosureEngine of the Functional Dependencies, reused for every closure of the Relation.
+	*/
+	private ClosureEngine closureEngine;
+	/**
 	* The list of 2NF decomposed relations of the Relation.
 	*/
 	private ArrayList<Relation> twoNFRelations;
@@ -90,6 +110,72 @@ public class Relation {
 	* The highest Normal Form of the Relation
 	*/
 	private int normalForm;
+	/**
+	* Whether the Normal Form of the Relation and of it's FDs has been computed.
+	*/
+	private boolean normalFormComputed;
+	/**
+	* The algorithm used to find the candidate keys of the Relation.
+	*/
+	private KeyStrategy keyStrategy = Relation.defaultKeyStrategy;
+	/**
+	* The key strategy of every Relation created afterwards.
+	*/
+	private static KeyStrategy defaultKeyStrategy = KeyStrategy.EXHAUSTIVE;
+	/**
+	* The way the Normal Forms of the FDs of the Relation are decided.
+	*/
+	private Classification classification = Relation.defaultClassification;
+	/**
+	* The classification of every Relation created afterwards.
+	*/
+	private static Classification defaultClassification = Classification.CANDIDATE_KEYS;
+	/**
+	* For every attribute asked about so far, whether it is in some candidate key.
+	*/
+	private HashMap<Attribute, Boolean> primeAttributes;
+	/**
+	* The budget and cancellation flag of the analysis of the Relation, null for none.
+	*/
+	private AnalysisContext analysisContext;
+
+	/**
+	 * The algorithms available to find the candidate keys of a Relation.
+	 */
+	public enum KeyStrategy{
+		/**
+		* Filters the closures of every combination of attributes, 2^n closures.
+		*/
+		EXHAUSTIVE,
+		/**
+		* Grows the keys from one another with the Lucchesi-Osborn algorithm,
+		* polynomial in the number of keys. The closures and super keys are not computed.
+		*/
+		LUCCHESI_OSBORN,
+		/**
+		* Forces the essential attributes into every key, leaves out the attributes
+		* only found on the RHS of FDs and tries subsets of the rest by size.
+		* The closures and super keys are not computed.
+		*/
+		PRUNED
+	}
+
+	/**
+	 * The ways of deciding the Normal Form of a Functional Dependency.
+	 */
+	public enum Classification{
+		/**
+		* Compares the LHS and RHS with the list of candidate keys.
+		*/
+		CANDIDATE_KEYS,
+		/**
+		* BCNF when the closure of the LHS covers the relation, 3NF when the
+		* rest of the RHS is prime and 2NF unless the LHS is part of a key.
+		* Each of these is a search for one key with {@link #isPrime(Attribute)},
+		* so the candidate keys are never listed.
+		*/
+		CLOSURE
+	}
 
 	///////////////////////// Class Constructors /////////////////////////
 	// relation is of the form ** R(A,B,C,D) **
@@ -109,11 +195,18 @@ public class Relation {
 		this.nonFDAttributes = null;
 		this.funcDeps = new ArrayList<FunctionalDependency>();
 
+		ArrayList<String> attributeNames = new ArrayList<String>();
 		StringTokenizer separate_attributes = new StringTokenizer(relation.substring(2, relation.length() - 1), ",");
 		while(separate_attributes.hasMoreTokens()){
-			attributes.add(new Attribute(separate_attributes.nextToken()));
+			attributeNames.add(separate_attributes.nextToken());
 		}
-		Utils.sortAttributes(this.attributes);
+		// Interning in sorted order keeps the ids in the same order as the sorted attribute list
+		Collections.sort(attributeNames);
+		this.dictionary = new AttributeDictionary();
+		for(String name : attributeNames){
+			attributes.add(this.dictionary.intern(name));
+		}
+		this.attributeSet = new AttributeSet(this.attributes);
 		// System.out.println(this.attributes);
 		StringTokenizer separate_funcDeps = new StringTokenizer(functionalDeps, ";");
 		ArrayList<Attribute> x = new ArrayList<Attribute>();
@@ -158,26 +251,34 @@ public class Relation {
 		this.nonEssentialAttributes = null;
 		this.superKeys = null;
 		this.candidate_key = null;
+		this.primeAttributes = new HashMap<Attribute, Boolean>();
 		this.keyAttributes = null;
 		this.nonKeyAttributes = null;
 		this.minimalCover = null;
+		this.canonicalCover = null;
 		this.closures = null;
 		this.twoNFRelations = null;
 		this.threeNFRelations = null;
 		this.bcNFRelations = null;
 		this.normalForm = 1;
-
-        this.computeClosures();
-		this.computeSuperKeys();
-		this.computeCandiadteKey();
-		// System.out.println(this.candidate_key);
-		this.computeMinimalCover();
-		this.computeFDsNF();
-		this.computeNormalForm();
-		this.separateFDs();
+		this.normalFormComputed = false;
+		// Everything else is computed on demand by the getters
                 //this.normalizeRelationByOneLevel();
 	}
 
+	/** 
+	* The initial constructor for the input Relation Attributes and 
+	* Relation Functional Dependencies, with the analysis bounded by a context.
+	* @param relation The string representation for the Relation taken as input.
+	* @param noOfAttr The number of attributes.
+	* @param functionalDeps The string representation of all the Functional Dependencies taken as input.
+	* @param context The budget and cancellation flag of the analysis, inherited by the decomposed relations.
+	*/
+	public Relation(String relation, int noOfAttr, String functionalDeps, AnalysisContext context) {
+		this(relation, noOfAttr, functionalDeps);
+		this.analysisContext = context;
+	}
+
 	/** 
 	* The initial constructor for the input Relation Attributes and 
 	* Relation Functional Dependencies.
@@ -190,6 +291,8 @@ public class Relation {
 		this.attributes = new ArrayList<Attribute>(attributes);
 		this.nonFDAttributes = null;
 		Utils.sortAttributes(this.attributes);
+		this.attributeSet = new AttributeSet(this.attributes);
+		this.dictionary = AttributeDictionary.of(this.attributes);
 		this.relation = this.generateRelationString(this.attributes);
 		
 		this.funcDeps = new ArrayList<FunctionalDependency>();
@@ -225,18 +328,14 @@ public class Relation {
 		this.nonEssentialAttributes = null;	
 		this.superKeys = null;
 		this.candidate_key = null;
+		this.primeAttributes = new HashMap<Attribute, Boolean>();
 		this.keyAttributes = null;
 		this.nonKeyAttributes = null;
 		this.minimalCover = null;
+		this.canonicalCover = null;
 		this.closures = null;
 		this.normalForm = 1;
-
-		this.computeClosures();
-		this.computeSuperKeys();
-		this.computeCandiadteKey();
-		this.computeMinimalCover();
-		this.computeFDsNF();
-		this.computeNormalForm();
+		this.normalFormComputed = false;
 	}
 
 	/** 
@@ -250,6 +349,8 @@ public class Relation {
 		this.attributes = new ArrayList<Attribute>(attributes);
 		this.nonFDAttributes = null;
 		Utils.sortAttributes(this.attributes);
+		this.attributeSet = new AttributeSet(this.attributes);
+		this.dictionary = AttributeDictionary.of(this.attributes);
 		this.relation = this.generateRelationString(this.attributes);
 		
 		// System.out.println(this.relation);
@@ -271,18 +372,14 @@ public class Relation {
 			this.nonEssentialAttributes = null;	
 			this.superKeys = null;
 			this.candidate_key = null;
+			this.primeAttributes = new HashMap<Attribute, Boolean>();
 			this.keyAttributes = null;
 			this.nonKeyAttributes = null;
 			this.minimalCover = null;
+			this.canonicalCover = null;
 			this.closures = null;
 			this.normalForm = 1;
-
-			this.computeClosures();
-			this.computeSuperKeys();
-			this.computeCandiadteKey();
-			this.computeMinimalCover();
-			this.computeFDsNF()
-			this.computeNormalForm();
+			this.normalFormComputed = false;
 		} else {
 			this.funcDeps = null;
 
@@ -292,11 +389,14 @@ public class Relation {
 			this.superKeys.add(essentialAttributes);
 			this.candidate_key = new ArrayList<ArrayList<Attribute>>();
 			this.candidate_key.add(essentialAttributes);
+			this.primeAttributes = new HashMap<Attribute, Boolean>();
 			this.keyAttributes = new ArrayList<Attribute>(attributes);
 			this.nonKeyAttributes = null;
 			this.minimalCover = null;
+			this.canonicalCover = null;
 			this.closures = null;
 			this.normalForm = 4;
+			this.normalFormComputed = true;
 		}
 		
 	}
@@ -324,6 +424,103 @@ public class Relation {
 
 
 	///////////////////////// Class Methods /////////////////////////
+	// Every derived property is computed the first time it is asked for.
+	// super keys <- candidate keys (EXHAUSTIVE only) <- normal form
+	// minimal cover, candidate keys <- full and partial FDs
+
+	/**
+	* Computes the closures of all combinations of attributes if not done yet.
+	*/
+	private void ensureClosures(){
+		if(this.closures == null && this.funcDeps != null){
+			this.computeClosures();
+		}
+	}
+
+	/**
+	* Computes the Super Keys if not done yet.
+	*/
+	private void ensureSuperKeys(){
+		if(this.superKeys == null && this.funcDeps != null){
+			this.computeSuperKeys();
+		}
+	}
+
+	/**
+	* Computes the Essential and Non Essential Attributes if not done yet.
+	*/
+	private void ensureEssentialAttributes(){
+		if(this.essentialAttributes == null && this.funcDeps != null){
+			this.getEssentialAttributes(this.funcDeps);
+		}
+	}
+
+	/**
+	* Computes the Candidate Keys and the Key Attributes if not done yet.
+	*/
+	private void ensureCandidateKeys(){
+		if(this.candidate_key == null && this.funcDeps != null){
+			this.computeCandiadteKey();
+		}
+	}
+
+	/**
+	* Computes the Minimal Cover if not done yet.
+	*/
+	private void ensureMinimalCover(){
+		if(this.minimalCover == null && this.funcDeps != null){
+			this.computeMinimalCover();
+		}
+	}
+
+	/**
+	* Computes the Canonical Cover if not done yet.
+	*/
+	private void ensureCanonicalCover(){
+		if(this.canonicalCover == null && this.funcDeps != null){
+			this.canonicalCover = new CanonicalCover(this, this.funcDeps);
+		}
+	}
+
+	/**
+	* Computes the Normal Form of the relation and of it's FDs if not done yet.
+	*/
+	private void ensureNormalForm(){
+		if(!this.normalFormComputed){
+			this.computeNormalForm();
+		}
+	}
+
+	/**
+	* Computes the Full and Partial Functional Dependencies if not done yet.
+	*/
+	private void ensureSeparatedFDs(){
+		if(this.partialFuncDeps == null && this.funcDeps != null){
+			this.separateFDs();
+		}
+	}
+
+	/**
+	* Throws if the analysis context of the relation is cancelled or out of time.
+	*/
+	private void checkpoint(){
+		if(this.analysisContext != null){
+			this.analysisContext.checkpoint();
+		}
+	}
+
+	/**
+	* Turns the AttributeSets an aborted key search had found into lists of attributes.
+	* @param e The exception thrown by a CandidateKeyFinder search.
+	* @return The same exception, to be rethrown.
+	*/
+	private AnalysisAbortedException toAttributeLists(AnalysisAbortedException e){
+		ArrayList<ArrayList<Attribute>> keys = new ArrayList<ArrayList<Attribute>>();
+		for(Object key : e.getPartialResult()){
+			keys.add(((AttributeSet) key).toAttributeList(this.dictionary));
+		}
+		return e.withPartialResult(e.getStage(), keys);
+	}
 
 	/** 
 	* Computes Essential Attributes for a relation
@@ -348,18 +545,35 @@ public class Relation {
 
 	/** 
 	* Driver method to computes closures of all Attributes combinantions 
-	* that has the essential attributes for a relation
+	* that has the essential attributes for a relation.<br>
+	* Relations with atleast {@link ClosureEnumerator#getParallelThreshold()}
+	* attributes are enumerated in parallel by the ClosureEnumerator.
+	* @throws AnalysisAbortedException with the closures computed so far when the analysis context stops it.
 	*/
 	public void computeClosures(){	// Driver Method
 		this.closures = new ArrayList<Closure>();
 		this.getEssentialAttributes(funcDeps);
-		// if(this.essentialAttributes.isEmpty()){
-		// 	this.computeClosures(0, new ArrayList<Attribute>(), this.nonEssentialAttributes);	
-		// }else {
-		// 	this.closures.add(Closure.computeClosure(this.essentialAttributes, this.funcDeps));
-		// 	this.computeClosures(0, this.essentialAttributes, this.nonEssentialAttributes);
-		// }
-		this.computeClosures(0, new ArrayList<Attribute>(), this.attributes);	
+		try{
+			if(Closure.isLinearClosure() && this.attributes.size() >= ClosureEnumerator.getParallelThreshold()){
+				this.closures = ClosureEnumerator.computeClosures(this.attributes, this.getClosureEngine());
+				// The preorder of the enumerator is the sorted order only for single character names
+				if(!Utils.hasSingleCharacterNames(this.attributes)){
+					Utils.sortClosure(this.closures);
+				}
+				return;
+			}
+			// if(this.essentialAttributes.isEmpty()){
+			// 	this.computeClosures(0, new ArrayList<Attribute>(), this.nonEssentialAttributes);	
+			// }else {
+			// 	this.closures.add(Closure.computeClosure(this.essentialAttributes, this.funcDeps));
+			// 	this.computeClosures(0, this.essentialAttributes, this.nonEssentialAttributes);
+			// }
+			this.computeClosures(0, new ArrayList<Attribute>(), this.attributes);	
+		} catch(AnalysisAbortedException e){
+			ArrayList<Closure> closures = this.closures;
+			this.closures = null;
+			throw e.withPartialResult("closures", closures);
+		}
 	}
 	// Actual Method
 	/**
@@ -371,8 +585,9 @@ public class Relation {
 	*/
 	public void computeClosures(int index, ArrayList<Attribute> essentialAttributeList, ArrayList<Attribute> nonEssentialAttributeList){
 		for(int i=index; i < nonEssentialAttributeList.size(); i++){
+			this.checkpoint();
 			essentialAttributeList.add(nonEssentialAttributeList.get(i));
-			Closure computedClosure = Closure.computeClosure(essentialAttributeList, this.funcDeps);
+			Closure computedClosure = this.computeClosure(essentialAttributeList);
 			if(computedClosure != null){
 				this.closures.add(computedClosure);
 			}
@@ -384,54 +599,259 @@ public class Relation {
 		Utils.sortClosure(this.closures);
 	}
 
+	/**
+	* Computes the closure of a list of attributes with respect to the
+	* Functional Dependencies of the relation, reusing the relation's
+	* ClosureEngine and closure cache.
+	* @param attributes The list of attributes to find the closure of
+	* @return A new Closure object after computing the closure.
+	*/
+	private Closure computeClosure(ArrayList<Attribute> attributes){
+		if(Closure.isLinearClosure()){
+			return Closure.computeClosure(attributes, this.getClosureEngine());
+		}
+		return Closure.computeClosure(attributes, this.funcDeps);
+	}
+
+	/**
+	* Checks if the Functional Dependencies of the relation imply an FD,
+	* with the ClosureEngine of the relation.
+	* @param f The FD to test, it's attributes are matched to the attributes of
+	* the relation by name and need not be in the relation.
+	* @return A boolean value
+	*/
+	public boolean implies(FunctionalDependency f){
+		AttributeSet[] sides = this.sidesOf(f);
+		return sides != null && this.getClosureEngine().implies(sides[0], sides[1]);
+	}
+
+	/**
+	* Gets the sides of an FD over the dictionary of the relation by the names
+	* of it's attributes. An attribute the relation does not have determines
+	* nothing but itself, so it is dropped from the LHS, and from the RHS when
+	* the LHS has it too.
+	* @param f An FD of any schema.
+	* @return The LHS and the RHS, or null when the RHS has an attribute the
+	* relation does not have and the LHS does not, so that the FD is not implied.
+	*/
+	private AttributeSet[] sidesOf(FunctionalDependency f){
+		AttributeDictionary dictionary = this.getDictionary();
+		if(dictionary.hasInterned(f.getLeftSideAttributes()) && dictionary.hasInterned(f.getRightSideAttributes())){
+			return new AttributeSet[]{new AttributeSet(f.getLeftSideAttributes()), new AttributeSet(f.getRightSideAttributes())};
+		}
+		AttributeSet left = new AttributeSet();
+		for(Attribute a : f.getLeftSideAttributes()){
+			int id = dictionary.getId(a.getName());
+			if(id >= 0){
+				left.add(id);
+			}
+		}
+		AttributeSet right = new AttributeSet();
+		for(Attribute a : f.getRightSideAttributes()){
+			int id = dictionary.getId(a.getName());
+			if(id >= 0){
+				right.add(id);
+			} else if(!f.getLeftSideAttributes().contains(a)){
+				return null;
+			}
+		}
+		return new AttributeSet[]{left, right};
+	}
+
+	/**
+	* Checks if the Functional Dependencies of the relation imply each of the given FDs.
+	* @param funcDeps The FDs to test, matched to the relation by attribute name as in {@link #implies(FunctionalDependency)}.
+	* @return For every FD in the order of the collection, whether it is implied.
+	*/
+	public boolean[] impliesAll(Collection<FunctionalDependency> funcDeps){
+		return this.impliesAll(funcDeps, false);
+	}
+
+	/**
+	* Checks if the Functional Dependencies of the relation imply each of the
+	* given FDs. The closure of every distinct LHS is computed once, in parallel
+	* on the pool of the calling task or the common pool if asked to.
+	* @param funcDeps The FDs to test, matched to the relation by attribute name as in {@link #implies(FunctionalDependency)}.
+	* @param parallel Whether to compute the closures in parallel.
+	* @return For every FD in the order of the collection, whether it is implied.
+	*/
+	public boolean[] impliesAll(Collection<FunctionalDependency> funcDeps, boolean parallel){
+		HashMap<AttributeSet, Integer> index = new HashMap<AttributeSet, Integer>();
+		ArrayList<AttributeSet> lefts = new ArrayList<AttributeSet>();
+		AttributeSet[] rights = new AttributeSet[funcDeps.size()];
+		int[] leftOf = new int[funcDeps.size()];
+		int i = 0;
+		for(FunctionalDependency f : funcDeps){
+			AttributeSet[] sides = this.sidesOf(f);
+			if(sides == null){
+				leftOf[i++] = -1;
+				continue;
+			}
+			Integer l = index.get(sides[0]);
+			if(l == null){
+				l = lefts.size();
+				index.put(sides[0], l);
+				lefts.add(sides[0]);
+			}
+			rights[i] = sides[1];
+			leftOf[i++] = l;
+		}
+		AttributeSet[] closures;
+		if(parallel){
+			closures = ClosureBatch.computeClosures(lefts, this.getClosureEngine());
+		} else {
+			closures = new AttributeSet[lefts.size()];
+			for(int l=0; l<closures.length; l++){
+				closures[l] = this.getClosureEngine().computeClosure(lefts.get(l));
+			}
+		}
+		boolean[] implied = new boolean[leftOf.length];
+		for(i=0; i<leftOf.length; i++){
+			implied[i] = leftOf[i] >= 0 && closures[leftOf[i]].containsAll(rights[i]);
+		}
+		return implied;
+	}
+
+	/**
+	* Generates the closures of all combinations of attributes one at a time,
+	* in depth first preorder of the attribute positions.
+	* @return An Iterator of Closure objects.
+	*/
+	public Iterator<Closure> closureIterator(){
+		return new ClosureIterator(this.attributes, this.getClosureEngine());
+	}
+
+	/**
+	* Streams the closures of all combinations of attributes without
+	* holding them in memory, in the order of {@link #closureIterator()}.
+	* @return A sequential Stream of Closure objects.
+	*/
+	public Stream<Closure> closureStream(){
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this.closureIterator(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+
+	/**
+	* Generates the Super Keys of the relation one at a time, by size and then
+	* in lexicographic order of the attribute positions.
+	* @return An Iterator of Super Keys.
+	*/
+	public Iterator<ArrayList<Attribute>> superKeyIterator(){
+		return new SuperKeyIterator(this.attributes, this.getEssentialAttributes(), this.getClosureEngine());
+	}
+
+	/**
+	* Streams the Super Keys of the relation without holding the closures
+	* of all combinations in memory, in the order of {@link #superKeyIterator()}.
+	* @return A sequential Stream of Super Keys.
+	*/
+	public Stream<ArrayList<Attribute>> superKeyStream(){
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this.superKeyIterator(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+
 	/**
 	* Computes Super Keys for a relation
 	*/
 	public void computeSuperKeys(){
-		this.superKeys = new ArrayList<ArrayList<Attribute>>();
-		for(Closure c : closures){
-			if(c.getRightSide().equals(attributes)){
-				superKeys.add(c.getLeftSide());
+		ArrayList<ArrayList<Attribute>> superKeys = new ArrayList<ArrayList<Attribute>>();
+		try{
+			Iterator<ArrayList<Attribute>> itr = this.superKeyIterator();
+			while(itr.hasNext()){
+				superKeys.add(itr.next());
 			}
+		} catch(AnalysisAbortedException e){
+			throw e.withPartialResult("super keys", superKeys);
 		}
-		for(ArrayList<Attribute> key : this.superKeys){
-			Utils.sortAttributes(key);
-		}
-		Collections.sort(this.superKeys, new SortAttrList());
+		this.superKeys = superKeys;
+		Utils.sortKeys(this.superKeys);
 	}
 	
 	/**
-	* Computes Canidate Keys for a relation
+	* Computes Canidate Keys for a relation with the key strategy of the relation.
+	* @throws AnalysisAbortedException with the keys found so far when the analysis context stops the search.
 	*/
 	public void computeCandiadteKey(){
+		if(this.keyStrategy == KeyStrategy.LUCCHESI_OSBORN){
+			this.computeCandidateKeys(this.findKeys(KeyStrategy.LUCCHESI_OSBORN));
+		} else if(this.keyStrategy == KeyStrategy.PRUNED){
+			this.computeCandidateKeys(this.findKeys(KeyStrategy.PRUNED));
+		} else {
+			this.computeCandidateKeysFromSuperKeys();
+		}
+	}
+
+	/**
+	* Runs one of the CandidateKeyFinder algorithms, turning the keys an
+	* aborted search had found into lists of attributes.
+	* @param keyStrategy LUCCHESI_OSBORN or PRUNED.
+	* @return The candidate keys as AttributeSets.
+	*/
+	private ArrayList<AttributeSet> findKeys(KeyStrategy keyStrategy){
+		try{
+			if(keyStrategy == KeyStrategy.LUCCHESI_OSBORN){
+				return CandidateKeyFinder.lucchesiOsborn(this.attributeSet, this.getClosureEngine());
+			}
+			return CandidateKeyFinder.pruned(this.attributeSet, this.getClosureEngine());
+		} catch(AnalysisAbortedException e){
+			throw this.toAttributeLists(e);
+		}
+	}
+
+	/**
+	* Computes Canidate Keys for a relation by keeping the minimal super keys.
+	*/
+	private void computeCandidateKeysFromSuperKeys(){
+		this.ensureSuperKeys();
 		this.candidate_key = new ArrayList<ArrayList<Attribute>>();
-		HashSet<Attribute> kA = new HashSet<Attribute>();
-		HashSet<Attribute> nKA = new HashSet<Attribute>(this.attributes);
+		ArrayList<AttributeSet> keys = new ArrayList<AttributeSet>();
+		AttributeSet kA = new AttributeSet();
 
-		this.candidate_key.add(this.superKeys.get(0));
-		kA.addAll(this.superKeys.get(0));
 		for(ArrayList<Attribute> superKey : this.superKeys){
+			AttributeSet superKeySet = new AttributeSet(superKey);
 			boolean notMinimal = false;
-			if(!this.candidate_key.contains(superKey)){
-				for(ArrayList<Attribute> key : this.candidate_key){
-					if(superKey.containsAll(key)){
-						notMinimal = true;
-						break;
-					}
+			for(AttributeSet key : keys){
+				if(superKeySet.containsAll(key)){
+					notMinimal = true;
+					break;
 				}
-			} else {
-				notMinimal = true;
 			}
 			if(!notMinimal){
 				this.candidate_key.add(superKey);
-				kA.addAll(superKey);
+				keys.add(superKeySet);
+				kA.addAll(superKeySet);
+			}
+		}
+		this.computeKeyAttributes(kA);
+	}
+
+	/**
+	* Sets the Canidate Keys of a relation found by one of the CandidateKeyFinder
+	* algorithms, without computing the closure of every combination of attributes.
+	* @param keys The candidate keys as AttributeSets.
+	*/
+	private void computeCandidateKeys(ArrayList<AttributeSet> keys){
+		this.getEssentialAttributes(this.funcDeps);
+		AttributeSet kA = new AttributeSet();
+		for(AttributeSet key : keys){
+			kA.addAll(key);
+		}
+		this.candidate_key = CandidateKeyFinder.toKeyList(keys, this.dictionary);
+		this.computeKeyAttributes(kA);
+	}
+
+	/**
+	* Splits the attributes of the relation into key and non-key attributes.
+	* @param kA The union of the candidate keys.
+	*/
+	private void computeKeyAttributes(AttributeSet kA){
+		this.keyAttributes = new ArrayList<Attribute>();
+		this.nonKeyAttributes = new ArrayList<Attribute>();
+		for(Attribute a : this.attributes){
+			if(kA.contains(a)){
+				this.keyAttributes.add(a);
+			} else {
+				this.nonKeyAttributes.add(a);
 			}
 		}
-		this.keyAttributes = new ArrayList<Attribute>(kA);
-		Utils.sortAttributes(this.keyAttributes);
-		nKA.removeAll(kA);
-		this.nonKeyAttributes  = new ArrayList<Attribute>(nKA);
-		Utils.sortAttributes(this.nonKeyAttributes);
 	}
 
 	/**
@@ -439,30 +859,121 @@ public class Relation {
 	* @return An integer.
 	*/
 	private int getMinimalSize(){
-		int size = this.superKeys.size();
-		int min = this.superKeys.get(0).size();
+		ArrayList<ArrayList<Attribute>> superKeys = this.getKeys();
+		int size = superKeys.size();
+		int min = superKeys.get(0).size();
 		for(int i=1; i<size; i++){
-			if(this.superKeys.get(i).size() <= min){
-				min = this.superKeys.get(i).size();
+			if(superKeys.get(i).size() <= min){
+				min = superKeys.get(i).size();
 			}
 		}
 		return min;
 	}
 
+	/**
+	* Checks if an attribute is in some candidate key of the relation. The
+	* Key Attributes are used when the candidate keys are known, otherwise a
+	* key holding the attribute is searched for and the answer is cached.
+	* @param a The attribute to check.
+	* @return A boolean value
+	*/
+	public boolean isPrime(Attribute a){
+		if(!this.attributeSet.contains(a)){
+			return false;
+		}
+		if(this.keyAttributes != null){
+			return this.keyAttributes.contains(a);
+		}
+		Boolean prime = this.primeAttributes.get(a);
+		if(prime == null){
+			AttributeSet attributes = new AttributeSet();
+			attributes.add(a.getId());
+			prime = this.isInSomeKey(attributes);
+			this.primeAttributes.put(a, prime);
+		}
+		return prime;
+	}
+
+	/**
+	* Checks if some candidate key of the relation holds all the given attributes.
+	* @param attributes The attributes to check.
+	* @return A boolean value
+	*/
+	public boolean isInSomeKey(AttributeSet attributes){
+		if(this.candidate_key != null){
+			for(ArrayList<Attribute> key : this.candidate_key){
+				if(new AttributeSet(key).containsAll(attributes)){
+					return true;
+				}
+			}
+			return false;
+		}
+		return CandidateKeyFinder.isInSomeKey(attributes, this.attributeSet, this.getClosureEngine());
+	}
+
+	/**
+	* Finds a candidate key with the fewest attributes by a branch and bound
+	* search, without listing the other candidate keys.
+	* @return A list of attributes that is a smallest candidate key of the relation.
+	*/
+	public ArrayList<Attribute> getMinimumKey(){
+		return this.getMinimumKey(null);
+	}
+
+	/**
+	* Finds a candidate key of the smallest total weight by a branch and bound
+	* search, without listing the other candidate keys.
+	* @param weights The cost of each attribute, eg: it's width in bytes. Attributes
+	* not in the map cost 1, null counts the attributes.
+	* @return A list of attributes that is a cheapest candidate key of the relation.
+	*/
+	public ArrayList<Attribute> getMinimumKey(Map<Attribute, Double> weights){
+		if(this.funcDeps == null){
+			return new ArrayList<Attribute>(this.attributes);
+		}
+		double[] w = null;
+		if(weights != null){
+			w = new double[this.dictionary.size()];
+			Arrays.fill(w, 1);
+			for(Map.Entry<Attribute, Double> e : weights.entrySet()){
+				if(e.getValue() < 0){
+					throw new IllegalArgumentException("The weight of " + e.getKey() + " is negative");
+				}
+				if(this.attributeSet.contains(e.getKey())){
+					w[e.getKey().getId()] = e.getValue();
+				}
+			}
+		}
+		try{
+			return CandidateKeyFinder.minimumKey(this.attributeSet, this.getClosureEngine(), w).toAttributeList(this.dictionary);
+		} catch(AnalysisAbortedException e){
+			throw this.toAttributeLists(e);
+		}
+	}
+
 	/**
 	* Gets Primary Key for a relation
 	* @return A list of attributes that is the primary key of the relation.
 	*/
 	public ArrayList<Attribute> getPrimaryKey(){
-		return this.candidate_key.get(0);
+		return this.getCandidateKeys().get(0);
 	}
 
 	/**
 	* Computes Normal of the relation for a relation
 	*/
 	public void computeNormalForm(){
-		for(FunctionalDependency f : this.funcDeps){
-			f.computeNormalForm(this.keyAttributes, this.nonKeyAttributes, this.candidate_key);
+		this.normalFormComputed = true;
+		if(this.funcDeps == null){
+			return;
+		}
+		try{
+			for(FunctionalDependency f : this.funcDeps){
+				this.classify(f);
+			}
+		} catch(AnalysisAbortedException e){
+			this.normalFormComputed = false;
+			throw e;
 		}
 		boolean is2NF = true;
 		for(FunctionalDependency f : this.funcDeps){
@@ -516,12 +1027,14 @@ public class Relation {
 				String leftAttr = st.nextToken();
 				StringBuilder sb = new StringBuilder();
 				sb.append(leftAttr);sb.append("->");
+				int leftLength = sb.length();
 				for(Attribute a : f.getRightSideAttributes()){
 					sb.append(a.getName());
 					// System.out.println("		" + sb.toString());
 					this.minimalCover.add(new FunctionalDependency(this, sb.toString()));
 					minimalCoverCopy.add(new FunctionalDependency(this, sb.toString()));
-					sb.deleteCharAt(sb.length()-1);
+					// The whole name is dropped, names can be longer than one character
+					sb.setLength(leftLength);
 				}
 			} else {
 				this.minimalCover.add(new FunctionalDependency(this, funcDep));
@@ -534,56 +1047,88 @@ public class Relation {
 		// System.out.println("\n        Minimal Cover: " + this.minimalCover);
 		// System.out.println("\n        Minimal Cover: " + minimalCoverCopy);
 		
-		// Step 3 : Minimizing the LHS
-		int noOfFDs = minimalCoverCopy.size();
-		for(int i=0; i<minimalCoverCopy.size(); i++){
-			if(minimalCoverCopy.get(i).getLeftSideAttributes().size()>=2){
-				FunctionalDependency g = minimalCoverCopy.get(i);
-				// ArrayList<Attribute> f_left = ();
-				// int noOfLeftAttr = ;
-				for(int j=0; j<g.getLeftSideAttributes().size(); j++){
-					FunctionalDependency f = minimalCoverCopy.remove(i);
-					ArrayList<Attribute> f_left = f.getLeftSideAttributes();
-					Attribute b = f_left.remove(j);
-					// System.out.println("          Adding: " + f + " at " + i);
-					// minimalCoverCopy.add(i, f);
-					minimalCoverCopy.add(i, new FunctionalDependency(this, f.getLeftSideAttributes(), f.getRightSideAttributes()));
-					// System.out.println("          " + this.minimalCover);
-					// System.out.println("          " + minimalCoverCopy);
-					boolean equivalent = Closure.equivalentClosures(this.minimalCover, minimalCoverCopy);
-					// System.out.println("          " + minimalCoverCopy);
-					// System.out.println("          Are Equivalent: " + equivalent);
-					if(!equivalent){
-						f_left.add(j,b);
+		// A cover equivalent to the FDs, reported if the analysis is aborted
+		ArrayList<FunctionalDependency> equivalentCover = this.minimalCover;
+		try{
+			// Step 3 : Minimizing the LHS
+			// The copy stays equivalent to the split FDs, so dropping B from X->Y keeps it
+			// equivalent exactly when the split FDs imply (X-B)->Y
+			ClosureEngine splitEngine = new ClosureEngine(this.minimalCover);
+			splitEngine.setCache(this.getClosureCache());
+			splitEngine.setContext(this.analysisContext);
+			int noOfFDs = minimalCoverCopy.size();
+			for(int i=0; i<minimalCoverCopy.size(); i++){
+				if(minimalCoverCopy.get(i).getLeftSideAttributes().size()>=2){
+					FunctionalDependency g = minimalCoverCopy.get(i);
+					// ArrayList<Attribute> f_left = ();
+					// int noOfLeftAttr = ;
+					for(int j=0; j<g.getLeftSideAttributes().size(); j++){
+						FunctionalDependency f = minimalCoverCopy.remove(i);
+						ArrayList<Attribute> f_left = f.getLeftSideAttributes();
+						Attribute b = f_left.remove(j);
+						// System.out.println("          Adding: " + f + " at " + i);
+						// minimalCoverCopy.add(i, f);
+						minimalCoverCopy.add(i, new FunctionalDependency(this, f.getLeftSideAttributes(), f.getRightSideAttributes()));
+						// System.out.println("          " + this.minimalCover);
 						// System.out.println("          " + minimalCoverCopy);
-						// System.out.println("          Setting: " + f + " at " + i);
-						// minimalCoverCopy.remove(i);
+						boolean equivalent = splitEngine.implies(new AttributeSet(f_left), new AttributeSet(f.getRightSideAttributes()));
 						// System.out.println("          " + minimalCoverCopy);
-						minimalCoverCopy.set(i,f);
-						// minimalCoverCopy.add(i,f);
-						// System.out.println("          " + this.minimalCover);
-						// System.out.println("          " + minimalCoverCopy + "\n");
+						// System.out.println("          Are Equivalent: " + equivalent);
+						if(!equivalent){
+							f_left.add(j,b);
+							// System.out.println("          " + minimalCoverCopy);
+							// System.out.println("          Setting: " + f + " at " + i);
+							// minimalCoverCopy.remove(i);
+							// System.out.println("          " + minimalCoverCopy);
+							minimalCoverCopy.set(i,f);
+							// minimalCoverCopy.add(i,f);
+							// System.out.println("          " + this.minimalCover);
+							// System.out.println("          " + minimalCoverCopy + "\n");
+						}
+						// f_left.add(j,b);
+						// minimalCoverCopy.add(i, f);
+						// if(Closure.equivalentClosures(minimalCoverCopy, this.minimalCover)){
+						// }
 					}
-					// f_left.add(j,b);
-					// minimalCoverCopy.add(i, f);
-					// if(Closure.equivalentClosures(minimalCoverCopy, this.minimalCover)){
-					// }
 				}
 			}
-		}
-		// System.out.println("\n   2) Minimal Cover: After Step 3");
-		// System.out.println("\n        Minimal Cover: " + this.minimalCover);
-		// System.out.println("\n        Minimal Cover: " + minimalCoverCopy);
-
-		// Step 4 : Minimizing the RHS
-		for(int i=0; i<minimalCoverCopy.size(); i++){
-			FunctionalDependency f = minimalCoverCopy.remove(i);
-			boolean equivalent = Closure.equivalentClosures(this.minimalCover, minimalCoverCopy);
-			if(!equivalent){
-				minimalCoverCopy.add(i, f);
+			// System.out.println("\n   2) Minimal Cover: After Step 3");
+			// System.out.println("\n        Minimal Cover: " + this.minimalCover);
+			// System.out.println("\n        Minimal Cover: " + minimalCoverCopy);
+
+			equivalentCover = new ArrayList<FunctionalDependency>(minimalCoverCopy);
+
+			// Step 4 : Minimizing the RHS
+			// X->Y is redundant exactly when the rest of the copy implies it. The engine
+			// keeps the FDs in the order of the copy, removed ones stay switched off
+			ClosureEngine copyEngine = new ClosureEngine(minimalCoverCopy);
+			copyEngine.setContext(this.analysisContext);
+			if(minimalCoverCopy.size() >= RedundancyEliminator.getParallelThreshold()){
+				boolean[] redundant = RedundancyEliminator.findRedundant(copyEngine);
+				ArrayList<FunctionalDependency> kept = new ArrayList<FunctionalDependency>();
+				for(int i=0; i<redundant.length; i++){
+					if(!redundant[i]){
+						kept.add(minimalCoverCopy.get(i));
+					}
+				}
+				minimalCoverCopy = kept;
 			} else {
-				i--;
+				int fd = 0;
+				for(int i=0; i<minimalCoverCopy.size(); i++, fd++){
+					FunctionalDependency f = minimalCoverCopy.remove(i);
+					copyEngine.setDisabled(fd, true);
+					boolean equivalent = copyEngine.implies(new AttributeSet(f.getLeftSideAttributes()), new AttributeSet(f.getRightSideAttributes()));
+					if(!equivalent){
+						minimalCoverCopy.add(i, f);
+						copyEngine.setDisabled(fd, false);
+					} else {
+						i--;
+					}
+				}
 			}
+		} catch(AnalysisAbortedException e){
+			this.minimalCover = null;
+			throw e.withPartialResult("minimal cover", equivalentCover);
 		}
 		// System.out.println("\n   3) Minimal Cover: After Step 4");
 		// System.out.println("\n        Minimal Cover: " + this.minimalCover);
@@ -618,6 +1163,20 @@ public class Relation {
 
 	public void computeFDsNF(){
 		for(FunctionalDependency f : this.funcDeps){
+			this.classify(f);
+		}
+	}
+
+	/**
+	* Computes the Normal Form of a Functional Dependency of the relation
+	* with the classification of the relation.
+	* @param f The Functional Dependency to classify.
+	*/
+	private void classify(FunctionalDependency f){
+		if(this.classification == Classification.CLOSURE){
+			f.computeNormalForm(this);
+		} else {
+			this.ensureCandidateKeys();
 			f.computeNormalForm(this.keyAttributes, this.nonKeyAttributes, this.candidate_key);
 		}
 	}
@@ -631,7 +1190,8 @@ public class Relation {
 		// this.fullFuncDeps = new ArrayList<FunctionalDependency>();
 		Set<FunctionalDependency> partialFuncDeps = new HashSet<FunctionalDependency>();
 		CopyOnWriteArrayList<FunctionalDependency> fullFuncDeps = new CopyOnWriteArrayList<FunctionalDependency>();
-		Utils.generateFunctionalDependencies(this.minimalCover, fullFuncDeps);
+		this.ensureCandidateKeys();
+		Utils.generateFunctionalDependencies(this.getMinimalCover(), fullFuncDeps);
 
 		Iterator<FunctionalDependency> itr1 = fullFuncDeps.iterator();
 		while(itr1.hasNext()){
@@ -640,7 +1200,7 @@ public class Relation {
 			// System.out.println("		" + fullFuncDepsSet);
 			// System.out.println("		" + partialFuncDeps);
 			FunctionalDependency fd = itr1.next();
-			fd.computeNormalForm(this.keyAttributes, this.nonKeyAttributes, this.candidate_key);
+			this.classify(fd);
 			// System.out.println("		fd = " + fd);
 			if(fd.getNormalForm() < 2){
 				partialFuncDeps.add(fd);
@@ -648,7 +1208,7 @@ public class Relation {
 				// transferBin.add(fd);
 
 				Utils.sortAttributes(fd.getRightSideAttributes());
-				Closure c = Closure.computeClosure(fd.getRightSideAttributes(), this.funcDeps);
+				Closure c = this.computeClosure(fd.getRightSideAttributes());
 				Iterator<FunctionalDependency> itr2 = fullFuncDeps.iterator();
 				while(itr2.hasNext()){
 					FunctionalDependency f = itr2.next();
@@ -688,7 +1248,7 @@ public class Relation {
 	* This method normalizes a relation from x NF to (x + 1) NF upto BCNF.
 	*/
 	public void normalizeRelationByOneLevel(){
-		if(!(this.normalForm >= 2)){
+		if(!(this.getNormalForm() >= 2)){
 			this.decomposeInto2NFRelations();
 			if(this.twoNFRelations != null){
 				for(Relation r : this.twoNFRelations){
@@ -702,7 +1262,7 @@ public class Relation {
 				}
 				System.out.println("");	
 			}
-		} else if(!(this.normalForm >= 3)){
+		} else if(!(this.getNormalForm() >= 3)){
 			this.decomposeInto3NFRelations();
 			if(this.threeNFRelations != null){
 				for(Relation r : this.threeNFRelations){
@@ -716,7 +1276,7 @@ public class Relation {
 				}
 				System.out.println("");	
 			}
-		} else if(!(this.normalForm >= 4)){
+		} else if(!(this.getNormalForm() >= 4)){
 			this.decomposeIntoBCNFRelations();
 			if(this.bcNFRelations != null){
 				for(Relation r : this.bcNFRelations){
@@ -739,7 +1299,7 @@ public class Relation {
 	* This method normalizes a relation from x NF to BCNF through every Normal Form.
 	*/
 	public void normalizeRelation(){
-		if(!(this.normalForm >= 2)){
+		if(!(this.getNormalForm() >= 2)){
 			this.decomposeInto2NFRelations();
 			if(this.twoNFRelations != null){
 				for(Relation r : this.twoNFRelations){
@@ -767,7 +1327,7 @@ public class Relation {
 				}
 				System.out.println("");	
 			}
-		}else if(!(this.normalForm >= 3)){
+		}else if(!(this.getNormalForm() >= 3)){
 			this.decomposeInto3NFRelations();
 			if(this.threeNFRelations != null){
 				for(Relation r : this.threeNFRelations){
@@ -785,7 +1345,7 @@ public class Relation {
 				}
 				System.out.println("");	
 			}
-		}else if(!(this.normalForm >= 4)){
+		}else if(!(this.getNormalForm() >= 4)){
 			this.decomposeIntoBCNFRelations();
 			if(this.bcNFRelations != null){
 				for(Relation r : this.bcNFRelations){
@@ -797,12 +1357,61 @@ public class Relation {
 		}
 	}
 
+	/**
+	* This method normalizes a relation from x NF to BCNF through every Normal
+	* Form like {@link #normalizeRelation()}, without printing, decomposing the
+	* relations of every level on a pool of the given parallelism.
+	* @param parallelism The largest number of relations decomposed at once.
+	*/
+	public void normalizeRelationInParallel(int parallelism){
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try{
+			this.normalizeRelationInParallel(pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	* This method normalizes a relation from x NF to BCNF through every Normal
+	* Form like {@link #normalizeRelation()}, without printing, decomposing the
+	* relations of every level on the given pool. The decomposed relations
+	* are the same, in the same order, as the sequential ones. The analysis of
+	* the relation itself runs on the pool too, so nothing runs on the common pool.
+	* @param pool The pool to run the decompositions on.
+	*/
+	public void normalizeRelationInParallel(final ForkJoinPool pool){
+		Utils.invoke(pool, ForkJoinTask.adapt(new Runnable(){
+			public void run(){
+				Relation.this.normalizeLevelsInParallel(pool);
+			}
+		}));
+	}
+
+	/**
+	* Decomposes the relation level by level from a task of the pool.
+	* @param pool The pool to run the decompositions on.
+	*/
+	private void normalizeLevelsInParallel(ForkJoinPool pool){
+		int relationNormalForm = this.getNormalForm();
+		if(!(relationNormalForm >= 2)){
+			this.twoNFRelations = Decompositions.decomposeInto2NFScheme(this);
+			this.threeNFRelations = ParallelNormalizer.decompose(this.twoNFRelations, 3, pool);
+			this.bcNFRelations = ParallelNormalizer.decompose(this.threeNFRelations, 4, pool);
+		} else if(!(relationNormalForm >= 3)){
+			this.threeNFRelations = Decompositions.decomposeInto3NFScheme(this);
+			this.bcNFRelations = ParallelNormalizer.decompose(this.threeNFRelations, 4, pool);
+		} else if(!(relationNormalForm >= 4)){
+			this.bcNFRelations = Decompositions.decomposeIntoBCNFScheme(this);
+		}
+	}
+
 	/** 
 	* This method normalizes the current relation to 2 NF.
 	*/
 	public void decomposeInto2NFRelations(){
 		System.out.println("\n Decomposing to 2NF Relations: ");
-		if(!(this.normalForm >= 2)){
+		if(!(this.getNormalForm() >= 2)){
 			this.twoNFRelations = Decompositions.decomposeInto2NFScheme(this);
 		}
 	}
@@ -814,17 +1423,23 @@ public class Relation {
 	public void decompose2NFInto3NFRelations(){
 		System.out.println("\n Decomposing to 3NF Relations: ");
 		if(this.twoNFRelations != null){
-			this.threeNFRelations = new ArrayList<Relation>();
-			for(Relation r : this.twoNFRelations){
-				int relationNormalForm = r.getNormalForm();
-				if(!(relationNormalForm >= 3)){
-					// System.out.println(r);
-					ArrayList<Relation> tempDecomposiiton = Decompositions.decomposeInto3NFScheme(r);
-					this.threeNFRelations.addAll(tempDecomposiiton);
-				} else {
-					this.threeNFRelations.add(r);
+			ArrayList<Relation> relations = new ArrayList<Relation>();
+			try{
+				for(Relation r : this.twoNFRelations){
+					this.checkpoint();
+					int relationNormalForm = r.getNormalForm();
+					if(!(relationNormalForm >= 3)){
+						// System.out.println(r);
+						ArrayList<Relation> tempDecomposiiton = Decompositions.decomposeInto3NFScheme(r);
+						relations.addAll(tempDecomposiiton);
+					} else {
+						relations.add(r);
+					}
 				}
+			} catch(AnalysisAbortedException e){
+				throw e.withPartialResult("3NF relations", relations);
 			}
+			this.threeNFRelations = relations;
 		}
 	}
 
@@ -833,11 +1448,22 @@ public class Relation {
 	*/
 	public void decomposeInto3NFRelations(){
 		System.out.println("\n Decomposing to 3NF Relations: ");
-		if(!(this.normalForm >= 3)){
+		if(!(this.getNormalForm() >= 3)){
 			this.threeNFRelations = Decompositions.decomposeInto3NFScheme(this);
 		}
 	}
 
+	/** 
+	* Synthesizes 3 NF schemas for the current relation from it's canonical
+	* cover, in time polynomial in the number of FDs. Unlike
+	* {@link #decomposeInto3NFRelations()} no fragment is analysed until it is
+	* asked for, which keeps wide relations practical.
+	* @return The ThreeNFSynthesis of the relation.
+	*/
+	public ThreeNFSynthesis synthesize3NFRelations(){
+		return Decompositions.synthesize3NFScheme(this);
+	}
+
 	/** 
 	* This method normalizes all the 3 NF decomposed relations
 	* of this relation to BC NF relations.
@@ -845,17 +1471,23 @@ public class Relation {
 	public void decompose3NFIntoBCNFRelations(){
 		System.out.println("\n Decomposing to BCNF Relations: ");
 		if(this.threeNFRelations != null){
-			this.bcNFRelations = new ArrayList<Relation>();
-			for(Relation r : this.threeNFRelations){
-				int relationNormalForm = r.getNormalForm();
-				if(!(relationNormalForm >= 4)){
-					// System.out.println(r);
-					ArrayList<Relation> tempDecomposiiton = Decompositions.decomposeIntoBCNFScheme(r);
-					this.bcNFRelations.addAll(tempDecomposiiton);
-				} else {
-					this.bcNFRelations.add(r);
+			ArrayList<Relation> relations = new ArrayList<Relation>();
+			try{
+				for(Relation r : this.threeNFRelations){
+					this.checkpoint();
+					int relationNormalForm = r.getNormalForm();
+					if(!(relationNormalForm >= 4)){
+						// System.out.println(r);
+						ArrayList<Relation> tempDecomposiiton = Decompositions.decomposeIntoBCNFScheme(r);
+						relations.addAll(tempDecomposiiton);
+					} else {
+						relations.add(r);
+					}
 				}
+			} catch(AnalysisAbortedException e){
+				throw e.withPartialResult("BCNF relations", relations);
 			}
+			this.bcNFRelations = relations;
 		}
 	}
 
@@ -864,11 +1496,41 @@ public class Relation {
 	*/
 	public void decomposeIntoBCNFRelations(){
 		System.out.println("\n Decomposing to BCNF Relations: ");
-		if(!(this.normalForm >= 4)){
+		if(!(this.getNormalForm() >= 4)){
 			this.bcNFRelations = Decompositions.decomposeIntoBCNFScheme(this);
 		}
 	}
 
+	/** 
+	* Splits the current relation into BC NF fragments, projecting the FDs of
+	* every fragment from the closures of the relation instead of filtering
+	* them as {@link #decomposeIntoBCNFRelations()} does.
+	* @return The BCNFDecomposition of the relation.
+	*/
+	public BCNFDecomposition splitIntoBCNFRelations(){
+		return Decompositions.splitIntoBCNFScheme(this);
+	}
+
+	/**
+	* Checks with the chase if a decomposition of the current relation is a
+	* lossless join decomposition.
+	* @param decomposition The relations the relation was decomposed into, eg: {@link #getBCNFRelations()}.
+	* @return The LosslessJoin with the verdict and the chased tableau.
+	*/
+	public LosslessJoin checkLosslessJoin(ArrayList<Relation> decomposition){
+		return LosslessJoin.check(this, decomposition);
+	}
+
+	/**
+	* Checks in polynomial time if a decomposition of the current relation
+	* preserves it's Functional Dependencies.
+	* @param decomposition The relations the relation was decomposed into, eg: {@link #getDecomposition()}.
+	* @return The DependencyPreservation with the FDs that are lost.
+	*/
+	public DependencyPreservation checkDependencyPreservation(ArrayList<Relation> decomposition){
+		return DependencyPreservation.check(this, decomposition);
+	}
+
 	/**
 	* Creates a copy of the current relation.
 	*/
@@ -876,7 +1538,224 @@ public class Relation {
 		Set<Attribute> attributes = new HashSet<Attribute>(this.attributes);
 		ArrayList<FunctionalDependency> funcDepsCopy = new ArrayList<FunctionalDependency>();
 		Utils.generateFunctionalDependencies(this.funcDeps, funcDepsCopy);
-		return new Relation(attributes, funcDepsCopy);
+		Relation copy = new Relation(attributes, funcDepsCopy);
+		copy.setAnalysisContext(this.analysisContext);
+		return copy;
+	}
+
+	///////////////////////// Editing Methods /////////////////////////
+	/**
+	* Adds a Functional Dependency to the relation.<br>
+	* An FD the relation already implies changes no closure, so the closures
+	* and keys are kept. Otherwise closures only grow, and only the closures
+	* holding the new LHS are recomputed. Known candidate keys are searched
+	* again from the old ones with the Lucchesi-Osborn algorithm, the super
+	* keys and everything else are recomputed when next asked for.
+	* @param funcDep The FD as a string, eg: A,B-&gt;C
+	* @return The new FunctionalDependency.
+	*/
+	public FunctionalDependency addFunctionalDependency(String funcDep){
+		this.ensureFunctionalDependencies();
+		this.checkAttributes(funcDep);
+		FunctionalDependency f = new FunctionalDependency(this, funcDep);
+		boolean implied = this.getClosureEngine().implies(new AttributeSet(f.getLeftSideAttributes()), new AttributeSet(f.getRightSideAttributes()));
+		this.funcDeps.add(f);
+		Utils.sortFunctionalDependency(this.funcDeps);
+		this.functionalDependenciesChanged(f, implied);
+		return this.funcDeps.get(this.funcDeps.indexOf(f));
+	}
+
+	/**
+	* Removes a Functional Dependency from the relation.<br>
+	* If the remaining FDs imply it no closure changes and the closures and
+	* keys are kept. Otherwise closures only shrink, and only the closures
+	* holding it's LHS are recomputed. Known candidate keys are searched again
+	* from the old ones that are still super keys.
+	* @param funcDep The FD as a string, eg: A,B-&gt;C
+	* @return true if the relation had the FD.
+	*/
+	public boolean removeFunctionalDependency(String funcDep){
+		this.ensureFunctionalDependencies();
+		this.checkAttributes(funcDep);
+		int index = this.funcDeps.indexOf(new FunctionalDependency(this, funcDep));
+		if(index < 0){
+			return false;
+		}
+		FunctionalDependency f = this.funcDeps.remove(index);
+		this.closureEngine = null;
+		boolean implied = this.getClosureEngine().implies(new AttributeSet(f.getLeftSideAttributes()), new AttributeSet(f.getRightSideAttributes()));
+		this.functionalDependenciesChanged(f, implied);
+		return true;
+	}
+
+	/**
+	* Adds an attribute that is in no Functional Dependency to the relation.<br>
+	* Such an attribute is in every key, so it is added to the super keys and
+	* candidate keys already found. The closures are recomputed when next asked for.
+	* @param name The name of the attribute.
+	* @return The new Attribute.
+	*/
+	public Attribute addAttribute(String name){
+		this.ensureFunctionalDependencies();
+		if(this.getAttribute(name) != null){
+			throw new IllegalArgumentException(name + " is already an attribute of " + this.relation);
+		}
+		Attribute a = this.dictionary.intern(name);
+		this.attributes.add(a);
+		Utils.sortAttributes(this.attributes);
+		this.attributeSet.add(a.getId());
+		this.noOfAttr = this.attributes.size();
+		this.relation = this.generateRelationString(this.attributes);
+
+		this.closures = null;
+		if(this.superKeys != null){
+			this.superKeys = Relation.addToKeys(this.superKeys, a);
+		}
+		if(this.candidate_key != null){
+			this.candidate_key = Relation.addToKeys(this.candidate_key, a);
+			this.keyAttributes.add(a);
+			Utils.sortAttributes(this.keyAttributes);
+		}
+		this.primeAttributes.put(a, true);
+		this.essentialAttributes = null;
+		this.nonEssentialAttributes = null;
+		this.analysisChanged();
+		return a;
+	}
+
+	/**
+	* Brings the closures and keys up to date after an FD was added or removed.
+	* @param f The FD added or removed.
+	* @param implied Whether the other FDs imply it, so that no closure changed.
+	*/
+	private void functionalDependenciesChanged(FunctionalDependency f, boolean implied){
+		this.closureEngine = null;
+		StringBuilder sb = new StringBuilder();
+		for(FunctionalDependency g : this.funcDeps){
+			sb.append(g.getName());
+			sb.append(";");
+		}
+		this.functionaldependencies = (sb.length() > 0) ? sb.substring(0, sb.length() - 1) : "";
+		ArrayList<ArrayList<Attribute>> oldKeys = (implied) ? null : this.candidate_key;
+		if(!implied){
+			if(this.closures != null){
+				// An FD fires only in closures that hold it's LHS
+				AttributeSet left = new AttributeSet(f.getLeftSideAttributes());
+				for(int i=0; i<this.closures.size(); i++){
+					Closure c = this.closures.get(i);
+					if(c.getRightSet().containsAll(left)){
+						this.closures.set(i, this.computeClosure(c.getLeftSide()));
+					}
+				}
+				this.superKeys = new ArrayList<ArrayList<Attribute>>();
+				for(Closure c : this.closures){
+					if(c.getRightSet().equals(this.attributeSet)){
+						this.superKeys.add(new ArrayList<Attribute>(c.getLeftSide()));
+					}
+				}
+				Utils.sortKeys(this.superKeys);
+			} else {
+				this.superKeys = null;
+			}
+			this.candidate_key = null;
+			this.keyAttributes = null;
+			this.nonKeyAttributes = null;
+			this.primeAttributes.clear();
+		}
+		this.essentialAttributes = null;
+		this.nonEssentialAttributes = null;
+		this.minimalCover = null;
+		this.canonicalCover = null;
+		this.analysisChanged();
+		if(oldKeys != null){
+			// The keys are searched again from the old ones instead of from every combination of attributes
+			ArrayList<AttributeSet> seeds = new ArrayList<AttributeSet>();
+			for(ArrayList<Attribute> key : oldKeys){
+				seeds.add(new AttributeSet(key));
+			}
+			try{
+				this.computeCandidateKeys(CandidateKeyFinder.lucchesiOsborn(this.attributeSet, this.getClosureEngine(), seeds));
+			} catch(AnalysisAbortedException e){
+				throw this.toAttributeLists(e);
+			}
+		}
+	}
+
+	/**
+	* Drops the Normal Form, the Full and Partial FDs and the decompositions
+	* after an edit, to be recomputed when next asked for.
+	*/
+	private void analysisChanged(){
+		this.partialFuncDeps = null;
+		this.fullFuncDeps = null;
+		this.twoNFRelations = null;
+		this.threeNFRelations = null;
+		this.bcNFRelations = null;
+		this.normalForm = 1;
+		this.normalFormComputed = false;
+		// The FDs are classified again against the new keys, on copies as the
+		// decompositions share the FD objects with their parent relation
+		for(int i=0; i<this.funcDeps.size(); i++){
+			FunctionalDependency f = this.funcDeps.get(i);
+			this.funcDeps.set(i, new FunctionalDependency(this, f.getLeftSideAttributes(), f.getRightSideAttributes(), 1));
+		}
+	}
+
+	/**
+	* Turns a relation without Functional Dependencies into one with an empty
+	* list of them, so they can be edited.
+	*/
+	private void ensureFunctionalDependencies(){
+		if(this.funcDeps == null){
+			this.funcDeps = new ArrayList<FunctionalDependency>();
+			this.closureEngine = null;
+			this.closures = null;
+			this.superKeys = null;
+			this.candidate_key = null;
+			this.keyAttributes = null;
+			this.nonKeyAttributes = null;
+			this.essentialAttributes = null;
+			this.nonEssentialAttributes = null;
+			this.analysisChanged();
+		}
+	}
+
+	/**
+	* Checks that an FD string has a LHS and RHS made of attributes of the relation.
+	* @param funcDep The FD as a string, eg: A,B-&gt;C
+	*/
+	private void checkAttributes(String funcDep){
+		int arrow = funcDep.indexOf("->");
+		if(arrow < 0){
+			throw new IllegalArgumentException(funcDep + " is not a Functional Dependency");
+		}
+		for(String side : new String[]{funcDep.substring(0, arrow), funcDep.substring(arrow + 2)}){
+			StringTokenizer st = new StringTokenizer(side, ",");
+			if(!st.hasMoreTokens()){
+				throw new IllegalArgumentException(funcDep + " is not a Functional Dependency");
+			}
+			while(st.hasMoreTokens()){
+				String name = st.nextToken();
+				if(this.getAttribute(name) == null){
+					throw new IllegalArgumentException(name + " is not an attribute of " + this.relation);
+				}
+			}
+		}
+	}
+
+	/**
+	* Copies a list of keys with an attribute added to each of them.
+	*/
+	private static ArrayList<ArrayList<Attribute>> addToKeys(ArrayList<ArrayList<Attribute>> keys, Attribute a){
+		ArrayList<ArrayList<Attribute>> newKeys = new ArrayList<ArrayList<Attribute>>();
+		for(ArrayList<Attribute> key : keys){
+			ArrayList<Attribute> newKey = new ArrayList<Attribute>(key);
+			newKey.add(a);
+			Utils.sortAttributes(newKey);
+			newKeys.add(newKey);
+		}
+		Utils.sortKeys(newKeys);
+		return newKeys;
 	}
 
 	///////////////////////// Printing Methods /////////////////////////
@@ -914,7 +1793,7 @@ public class Relation {
 	* Prints the Essential Attributes of the relation.
 	*/
 	public void printEssentialAttributes(){
-		for(Attribute a : this.essentialAttributes){
+		for(Attribute a : this.getEssentialAttributes()){
 			System.out.print(a.getName());
 		}
 		System.out.println("");
@@ -924,7 +1803,7 @@ public class Relation {
 	* Prints the Non Essential Attributes of the relation.
 	*/
 	public void printNonEssentialAttributes(){
-		for(Attribute a : this.nonEssentialAttributes){
+		for(Attribute a : this.getNonEssentialAttributes()){
 			System.out.print(a.getName());
 		}
 		System.out.println("");
@@ -934,7 +1813,7 @@ public class Relation {
 	* Prints the Super Keys of the relation.
 	*/
 	public void printSuperKeys(){
-		for(ArrayList<Attribute> k : this.superKeys){
+		for(ArrayList<Attribute> k : this.getKeys()){
 			System.out.print(Utils.stringifyAttributeList(k) + " ");
 		}
 		System.out.println("");
@@ -944,7 +1823,7 @@ public class Relation {
 	* Prints the Candidate Keys of the relation.
 	*/
 	public void printCandidateKeys(){
-		for(ArrayList<Attribute> k : this.candidate_key){
+		for(ArrayList<Attribute> k : this.getCandidateKeys()){
 			System.out.print(Utils.stringifyAttributeList(k) + " ");
 		}
 		System.out.println("");
@@ -954,7 +1833,7 @@ public class Relation {
 	* Prints the Key Attributes of the relation.
 	*/
 	public void printKeyAttributes(){
-		for(Attribute a : this.keyAttributes){
+		for(Attribute a : this.getKeyAttributes()){
 			System.out.print(a.getName());
 		}
 		System.out.println("");
@@ -964,7 +1843,7 @@ public class Relation {
 	* Prints the Non Key Attributes of the relation.
 	*/
 	public void printNonKeyAttributes(){
-		for(Attribute a : this.nonKeyAttributes){
+		for(Attribute a : this.getNonKeyAttributes()){
 			System.out.print(a.getName());
 		}
 		System.out.println("");
@@ -974,7 +1853,7 @@ public class Relation {
 	* Prints the Normal Form of the relation.
 	*/
 	public void printNormalForm(){
-		switch(this.normalForm){
+		switch(this.getNormalForm()){
 			case 1 :{
 				System.out.print("Relation is in 1NF\n");
 				break;
@@ -1007,6 +1886,7 @@ public class Relation {
 	* available FDs.
 	*/
 	public Object[][] generateNFTable(){
+		this.ensureNormalForm();
 		String[][] output = new String[this.funcDeps.size()][5];
 		int i = 0;
 		for(FunctionalDependency f : this.funcDeps){
@@ -1053,6 +1933,7 @@ public class Relation {
 			s.append("-");
 		}
 		s.append("\n");
+		this.ensureNormalForm();
 		s.append("|  Functional Dependency  | 1NF | 2NF | 3NF | BCNF |\n");
 		for(int i=0; i<len; i++){
 			s.append("-");
@@ -1101,10 +1982,11 @@ public class Relation {
 	* Prints the Minimal Cover of the relation.
 	*/
 	public void printMinimalCover(){
-		if(this.minimalCover != null){
+		ArrayList<FunctionalDependency> minimalCover = this.getMinimalCover();
+		if(minimalCover != null){
 			StringBuilder s = new StringBuilder();
 			s.append("{ ");
-			for(FunctionalDependency f : this.minimalCover){
+			for(FunctionalDependency f : minimalCover){
 				s.append(f.toString() + ", ");
 			}
 			s.deleteCharAt(s.toString().length() - 1);
@@ -1175,13 +2057,30 @@ public class Relation {
 		return this.noOfAttr;
 	}
 	public Attribute getAttribute(String attrName){
-		for(Attribute a : this.attributes){
-			if(a.getName().equals(attrName)){
-				return a;
-			}
+		Attribute a = this.dictionary.getAttribute(attrName);
+		if(a != null && this.attributeSet.contains(a)){
+			return a;
 		}
 		return null;
 	}
+	public AttributeDictionary getDictionary(){
+		return this.dictionary;
+	}
+	public ClosureCache getClosureCache(){
+		return this.dictionary.getClosureCache();
+	}
+	public ClosureEngine getClosureEngine(){
+		if(this.closureEngine == null){
+			ArrayList<FunctionalDependency> fds = (this.funcDeps != null) ? this.funcDeps : new ArrayList<FunctionalDependency>();
+			this.closureEngine = new ClosureEngine(fds);
+			this.closureEngine.setCache(this.getClosureCache());
+			this.closureEngine.setContext(this.analysisContext);
+		}
+		return this.closureEngine;
+	}
+	public AttributeSet getAttributeSet(){
+		return this.attributeSet;
+	}
 	public ArrayList<Attribute> getAttributes(){
 		return this.attributes;
 	}
@@ -1189,39 +2088,91 @@ public class Relation {
 		return this.funcDeps;
 	}
 	public ArrayList<FunctionalDependency> getFullFunctionalDependencies(){
+		this.ensureSeparatedFDs();
 		return this.fullFuncDeps;
 	}
 	public ArrayList<FunctionalDependency> getPartialFunctionalDependencies(){
+		this.ensureSeparatedFDs();
 		return this.partialFuncDeps;
 	}
     public ArrayList<Attribute> getEssentialAttributes(){
+		this.ensureEssentialAttributes();
 		return this.essentialAttributes;
 	}
     public ArrayList<Attribute> getNonEssentialAttributes(){
+		this.ensureEssentialAttributes();
 		return this.nonEssentialAttributes;
 	}
     public ArrayList<Attribute> getKeyAttributes(){
+		this.ensureCandidateKeys();
 		return this.keyAttributes;
         }
     public ArrayList<Attribute> getNonKeyAttributes(){
+		this.ensureCandidateKeys();
 		return this.nonKeyAttributes;
         }
 	public ArrayList<ArrayList<Attribute>> getKeys(){
+		this.ensureSuperKeys();
 		return this.superKeys;
 	}
     public ArrayList<ArrayList<Attribute>> getCandidateKeys(){
+		this.ensureCandidateKeys();
 		return this.candidate_key;
 	}
 	public int getNormalForm(){
+		this.ensureNormalForm();
 		return this.normalForm;
 	}
+	public KeyStrategy getKeyStrategy(){
+		return this.keyStrategy;
+	}
+	public void setKeyStrategy(KeyStrategy keyStrategy){
+		this.keyStrategy = keyStrategy;
+	}
+	public static KeyStrategy getDefaultKeyStrategy(){
+		return Relation.defaultKeyStrategy;
+	}
+	public static void setDefaultKeyStrategy(KeyStrategy keyStrategy){
+		Relation.defaultKeyStrategy = keyStrategy;
+	}
+	public Classification getClassification(){
+		return this.classification;
+	}
+	public void setClassification(Classification classification){
+		this.classification = classification;
+	}
+	public static Classification getDefaultClassification(){
+		return Relation.defaultClassification;
+	}
+	public static void setDefaultClassification(Classification classification){
+		Relation.defaultClassification = classification;
+	}
+	public AnalysisContext getAnalysisContext(){
+		return this.analysisContext;
+	}
+	public void setAnalysisContext(AnalysisContext analysisContext){
+		this.analysisContext = analysisContext;
+		if(this.closureEngine != null){
+			this.closureEngine.setContext(analysisContext);
+		}
+	}
 	public ArrayList<Closure> getClosures(){
+		this.ensureClosures();
 		if(this.closures != null){
 			return this.closures;
 		}
 		return null;
 	}
+	public ArrayList<FunctionalDependency> getCanonicalCover(){
+		this.ensureCanonicalCover();
+		return (this.canonicalCover == null) ? null : this.canonicalCover.getFunctionalDependencies();
+	}
+	public String getCoverFingerprint(){
+		this.ensureCanonicalCover();
+		return (this.canonicalCover == null) ? null : this.canonicalCover.getFingerprint();
+	}
 	public ArrayList<FunctionalDependency> getMinimalCover(){
+		this.ensureMinimalCover();
 		return this.minimalCover;
 	}
 	public ArrayList<Relation> get2NFRelations(){
@@ -1234,32 +2185,19 @@ public class Relation {
 		return this.bcNFRelations;
 	}
 	public ArrayList<Relation> getDecomposition(){
-		if(!(this.normalForm >= 2)){
+		if(!(this.getNormalForm() >= 2)){
 			return this.twoNFRelations;
 		}
-		if(!(this.normalForm >= 3)){
+		if(!(this.getNormalForm() >= 3)){
 			return this.threeNFRelations;
 		}
-		if(!(this.normalForm >= 4)){
+		if(!(this.getNormalForm() >= 4)){
 			return this.bcNFRelations;
 		}
 		return null;
 	}
 }
 
-/**
- * The helper class to provide the sortAttributes method with a comparator method
- * @author Karthik Rangasai
- * @see Utils#sortAttributes
- */
-class SortAttrList implements Comparator<ArrayList<Attribute>>{
-	public int compare(ArrayList<Attribute> a, ArrayList<Attribute> b){
-		String superKey_A = Utils.stringifyAttributeList(a);
-		String superKey_B = Utils.stringifyAttributeList(b);
-		return superKey_A.length() - superKey_B.length();
-	}
-}
-
 ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 /////////////////////////////////////////////////////// OLD ONE ///////////////////////////////////////////////////////////////////////////
 ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,16 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * Comparator orders AttributeSets by decreasing size, then by their bitmasks,
+ * so the fragments of a decomposition that may hold others come first.
+ */
+class SortAttributeSetsBySize implements Comparator<AttributeSet>{
+	public int compare(AttributeSet a, AttributeSet b){
+		if(a.size() != b.size()){
+			return b.size() - a.size();
+		}
+		return a.compareTo(b);
+	}
+}
@@ -0,0 +1,123 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The SuperKeyIterator generates the super keys of a relation one at a time
+ * without keeping the closures of the combinations it tries.<br>
+ * Combinations are tried by size and, within a size, in lexicographic order
+ * of the attribute positions. Those missing an essential attribute can not
+ * be super keys and are skipped without computing their closure.
+ */
+public class SuperKeyIterator implements Iterator<ArrayList<Attribute>>{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The attributes to combine, in the order of the relation.
+	*/
+	private ArrayList<Attribute> attributes;
+	/**
+	* The bitmask of all attributes of the relation.
+	*/
+	private AttributeSet relation;
+	/**
+	* The attributes every super key must hold.
+	*/
+	private AttributeSet essential;
+	/**
+	* The ClosureEngine used by this iterator alone.
+	*/
+	private ClosureEngine engine;
+	/**
+	* The attribute positions of the current combination.
+	*/
+	private int[] positions;
+	/**
+	* The size of the current combination.
+	*/
+	private int size;
+	/**
+	* The next super key, null when there are no more.
+	*/
+	private ArrayList<Attribute> next;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Creates an iterator over the super keys of a relation.
+	* @param attributes The attributes of the relation.
+	* @param essential The Essential Attributes of the relation.
+	* @param engine The ClosureEngine of the Functional Dependencies, copied for the iterator.
+	*/
+	public SuperKeyIterator(ArrayList<Attribute> attributes, ArrayList<Attribute> essential, ClosureEngine engine){
+		this.attributes = attributes;
+		this.relation = new AttributeSet(attributes);
+		this.essential = new AttributeSet(essential);
+		// Every combination is visited once, so caching would only hold on to memory
+		this.engine = engine.copy();
+		this.engine.setCache(null);
+		this.positions = new int[attributes.size()];
+		this.size = 0;
+		this.next = this.findNext();
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	public boolean hasNext(){
+		return this.next != null;
+	}
+
+	public ArrayList<Attribute> next(){
+		if(this.next == null){
+			throw new NoSuchElementException();
+		}
+		ArrayList<Attribute> superKey = this.next;
+		this.next = this.findNext();
+		return superKey;
+	}
+
+	/**
+	* Tries combinations until one is a super key.
+	* @return The super key or null if there are no more.
+	*/
+	private ArrayList<Attribute> findNext(){
+		while(this.nextCombination()){
+			AttributeSet candidate = new AttributeSet();
+			for(int i=0; i<this.size; i++){
+				candidate.add(this.attributes.get(this.positions[i]).getId());
+			}
+			if(candidate.containsAll(this.essential) && this.engine.computeClosure(candidate).equals(this.relation)){
+				ArrayList<Attribute> superKey = new ArrayList<Attribute>(this.size);
+				for(int i=0; i<this.size; i++){
+					superKey.add(this.attributes.get(this.positions[i]));
+				}
+				return superKey;
+			}
+		}
+		return null;
+	}
+
+	/**
+	* Steps to the next combination of the current size, or to the first one of the next size.
+	* @return false once every combination has been visited.
+	*/
+	private boolean nextCombination(){
+		int n = this.attributes.size();
+		int i = this.size - 1;
+		while(i >= 0 && this.positions[i] == n - this.size + i){
+			i--;
+		}
+		if(i < 0){
+			if(this.size == n){
+				return false;
+			}
+			this.size++;
+			for(int j=0; j<this.size; j++){
+				this.positions[j] = j;
+			}
+			return true;
+		}
+		this.positions[i]++;
+		for(int j=i+1; j<this.size; j++){
+			this.positions[j] = this.positions[j-1] + 1;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,226 @@
+package RelationalDatabase;
+
+import java.util.*;
+
+/**
+ * The ThreeNFSynthesis decomposes a relation into 3NF schemas with
+ * Bernstein's synthesis, in time polynomial in the number of FDs.<br>
+ * The canonical cover of the relation is grouped by LHS, every group X-&gt;Y
+ * gives the schema XY, and schemas contained in another schema are dropped.
+ * A key schema is added only when no schema is a super key of the relation.
+ * A schema S gets X-&gt;(Y n S) for every group whose X is inside it, which
+ * can still miss FDs that only hold through attributes outside S, so the
+ * FDs of schemas of upto {@link BCNFDecomposition#getExactProjectionSize()}
+ * attributes are projected from the closures of the relation instead. The
+ * schemas are kept as AttributeSets and a fragment Relation is only created
+ * when asked for, so no fragment is analysed unless it is used.
+ */
+public class ThreeNFSynthesis{
+	///////////////////////// Class Members /////////////////////////
+	/**
+	* The relation that is decomposed.
+	*/
+	private Relation relation;
+	/**
+	* The attributes of every schema.
+	*/
+	private ArrayList<AttributeSet> schemas;
+	/**
+	* For every schema, the FDs of the canonical cover with their LHS inside it,
+	* by their LHS with the RHS cut to the schema.
+	*/
+	private ArrayList<LinkedHashMap<AttributeSet, AttributeSet>> schemaFDs;
+	/**
+	* The projection without a bound for small schemas, null until it is needed.
+	*/
+	private FDProjection exactProjection;
+	/**
+	* The fragment of every schema, null until it is asked for.
+	*/
+	private ArrayList<Relation> relations;
+	/**
+	* Whether a key schema had to be added.
+	*/
+	private boolean keyAdded;
+
+	///////////////////////// Class Constructors /////////////////////////
+	/**
+	* Synthesizes the 3NF schemas of a relation.
+	* @param relation The relation to decompose.
+	*/
+	public ThreeNFSynthesis(Relation relation){
+		this.relation = relation;
+		this.schemas = new ArrayList<AttributeSet>();
+		this.schemaFDs = new ArrayList<LinkedHashMap<AttributeSet, AttributeSet>>();
+		AttributeSet all = relation.getAttributeSet();
+
+		// Grouping the FDs of the canonical cover by LHS
+		LinkedHashMap<AttributeSet, AttributeSet> groups = new LinkedHashMap<AttributeSet, AttributeSet>();
+		if(relation.getFunctionalDependencies() != null){
+			for(FunctionalDependency f : relation.getCanonicalCover()){
+				AttributeSet left = new AttributeSet(f.getLeftSideAttributes());
+				AttributeSet right = groups.get(left);
+				if(right == null){
+					right = new AttributeSet();
+					groups.put(left, right);
+				}
+				right.addAll(new AttributeSet(f.getRightSideAttributes()));
+			}
+		}
+
+		// One schema per group, largest first, dropping the ones inside a kept schema
+		ArrayList<AttributeSet> candidates = new ArrayList<AttributeSet>();
+		for(Map.Entry<AttributeSet, AttributeSet> group : groups.entrySet()){
+			AttributeSet schema = new AttributeSet(group.getKey());
+			schema.addAll(group.getValue());
+			candidates.add(schema);
+		}
+		Collections.sort(candidates, new SortAttributeSetsBySize());
+		for(AttributeSet schema : candidates){
+			boolean subsumed = false;
+			for(AttributeSet kept : this.schemas){
+				if(kept.containsAll(schema)){
+					subsumed = true;
+					break;
+				}
+			}
+			if(!subsumed){
+				this.schemas.add(schema);
+			}
+		}
+		for(AttributeSet schema : this.schemas){
+			LinkedHashMap<AttributeSet, AttributeSet> funcDeps = new LinkedHashMap<AttributeSet, AttributeSet>();
+			for(Map.Entry<AttributeSet, AttributeSet> group : groups.entrySet()){
+				if(schema.containsAll(group.getKey())){
+					AttributeSet right = new AttributeSet(group.getValue());
+					right.retainAll(schema);
+					if(!right.isEmpty()){
+						funcDeps.put(group.getKey(), right);
+					}
+				}
+			}
+			this.schemaFDs.add(funcDeps);
+		}
+
+		// A key schema, unless some schema already determines the relation
+		ClosureEngine engine = relation.getClosureEngine();
+		this.keyAdded = true;
+		for(AttributeSet schema : this.schemas){
+			if(CandidateKeyFinder.isSuperKey(schema, all, engine)){
+				this.keyAdded = false;
+				break;
+			}
+		}
+		if(this.keyAdded){
+			this.schemas.add(CandidateKeyFinder.minimize(all, all, engine));
+			this.schemaFDs.add(new LinkedHashMap<AttributeSet, AttributeSet>());
+		}
+
+		this.relations = new ArrayList<Relation>(Collections.<Relation>nCopies(this.schemas.size(), null));
+	}
+
+	///////////////////////// Class Methods /////////////////////////
+	/**
+	* Returns the number of schemas of the decomposition.
+	* @return An integer
+	*/
+	public int size(){
+		return this.schemas.size();
+	}
+
+	/**
+	* Returns the attributes of a schema.
+	* @param i The position of the schema.
+	* @return An AttributeSet
+	*/
+	public AttributeSet getSchema(int i){
+		return this.schemas.get(i);
+	}
+
+	/**
+	* Returns the attributes of a schema in the order of their ids.
+	* @param i The position of the schema.
+	* @return A list of attributes
+	*/
+	public ArrayList<Attribute> getAttributes(int i){
+		return this.schemas.get(i).toAttributeList(this.relation.getDictionary());
+	}
+
+	/**
+	* Creates the FDs of a schema, projected from the closures of the relation
+	* when the schema is small enough and cut from the canonical cover otherwise.
+	* @param i The position of the schema.
+	* @return A new list of FDs, empty for a key schema.
+	*/
+	public ArrayList<FunctionalDependency> getFunctionalDependencies(int i){
+		AttributeDictionary dictionary = this.relation.getDictionary();
+		AttributeSet schema = this.schemas.get(i);
+		LinkedHashMap<AttributeSet, AttributeSet> projected = this.schemaFDs.get(i);
+		if(schema.size() <= BCNFDecomposition.getExactProjectionSize()){
+			if(this.exactProjection == null){
+				this.exactProjection = new FDProjection(this.relation.getClosureEngine(), BCNFDecomposition.getExactProjectionSize());
+			}
+			projected = this.exactProjection.project(schema);
+		}
+		ArrayList<FunctionalDependency> funcDeps = new ArrayList<FunctionalDependency>();
+		for(Map.Entry<AttributeSet, AttributeSet> f : projected.entrySet()){
+			funcDeps.add(new FunctionalDependency(this.relation, f.getKey().toAttributeList(dictionary), f.getValue().toAttributeList(dictionary)));
+		}
+		return funcDeps;
+	}
+
+	/**
+	* Returns the fragment Relation of a schema, creating it the first time.
+	* The fragment inherits the analysis context of the relation.
+	* @param i The position of the schema.
+	* @return A Relation
+	*/
+	public Relation getRelation(int i){
+		if(this.relations.get(i) == null){
+			ArrayList<FunctionalDependency> funcDeps = this.getFunctionalDependencies(i);
+			Relation r = new Relation(new HashSet<Attribute>(this.getAttributes(i)), funcDeps.isEmpty() ? null : funcDeps);
+			r.setAnalysisContext(this.relation.getAnalysisContext());
+			this.relations.set(i, r);
+		}
+		return this.relations.get(i);
+	}
+
+	/**
+	* Returns the fragment Relations of every schema, creating the missing ones.
+	* @return A list of Relations in the order of the schemas.
+	*/
+	public ArrayList<Relation> getRelations(){
+		ArrayList<Relation> relations = new ArrayList<Relation>();
+		for(int i=0; i<this.schemas.size(); i++){
+			relations.add(this.getRelation(i));
+		}
+		return relations;
+	}
+
+	///////////////////////// Printing Methods /////////////////////////
+	/**
+	* A string representation of the schemas, eg: [R(A,B), R(B,C)].
+	*/
+	public String toString(){
+		StringBuilder s = new StringBuilder("[");
+		for(int i=0; i<this.schemas.size(); i++){
+			if(i > 0){
+				s.append(", ");
+			}
+			s.append("R(");
+			for(Attribute a : this.getAttributes(i)){
+				s.append(a.getName() + ",");
+			}
+			s.setCharAt(s.length() - 1, ')');
+		}
+		return s.append("]").toString();
+	}
+
+	///////////////////////// Getter and Setter Methods /////////////////////////
+	public Relation getRelation(){
+		return this.relation;
+	}
+	public boolean isKeyAdded(){
+		return this.keyAdded;
+	}
+}
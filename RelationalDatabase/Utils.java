@@ -1,6 +1,8 @@
 package RelationalDatabase;
 
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.*;
 
 /**
@@ -110,6 +112,14 @@ final public class Utils{
 		Collections.sort(funcDeps, new SortFDs());
 	}
 
+	/**
+	* <p>Sorts the given list of FunctionalDependency objects by the bitmask of their LHS and then of their RHS</p>
+	* @param funcDeps an ArrayList of FunctionalDependency object
+	*/
+	public static void sortFunctionalDependencyByBitmask(ArrayList<FunctionalDependency> funcDeps){
+		Collections.sort(funcDeps, new SortFDsByBitmask());
+	}
+
 	/**
 	* <p>Sorts the given list of Closure objects</p>
 	* @param closures an ArrayList of Closure object
@@ -118,6 +128,71 @@ final public class Utils{
 		Collections.sort(closures, new SortClosure());
 	}
 
+	/**
+	* <p>Sorts the given list of keys by the length of their printed form and then by the names of their attributes</p>
+	* @param keys an ArrayList of keys, each an ArrayList of Attribute objects
+	*/
+	public static void sortKeys(ArrayList<ArrayList<Attribute>> keys){
+		Collections.sort(keys, new SortAttrListByName());
+		Collections.sort(keys, new SortAttrList());
+	}
+
+	/**
+	* <p>Checks if every Attribute has a name of a single character.</p>
+	* @param attributes an ArrayList of Attribute objects
+	* @return A boolean value
+	*/
+	public static boolean hasSingleCharacterNames(ArrayList<Attribute> attributes){
+		for(Attribute a : attributes){
+			if(a.getName().length() != 1){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* Gets the attributes of the decomposed relations over the dictionary of the relation.
+	* @param relation The relation that was decomposed.
+	* @param decomposition The relations it was decomposed into, of any schema.
+	* @return The attributes of every decomposed relation.
+	* @throws IllegalArgumentException if a decomposed relation has an attribute the relation does not.
+	*/
+	public static ArrayList<AttributeSet> fragmentsOf(Relation relation, ArrayList<Relation> decomposition){
+		ArrayList<AttributeSet> fragments = new ArrayList<AttributeSet>();
+		for(Relation r : decomposition){
+			AttributeSet fragment = relation.getDictionary().lookupAll(r.getAttributes());
+			if(fragment == null){
+				throw new IllegalArgumentException(r + " has attributes that " + relation + " does not have");
+			}
+			fragments.add(fragment);
+		}
+		return fragments;
+	}
+
+	/**
+	* <p>Gets the pool of the calling task, so that work started from a task runs
+	* on the pool the caller chose, or the common pool when not called from one.</p>
+	* @return A ForkJoinPool
+	*/
+	public static ForkJoinPool currentPool(){
+		return ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+	}
+
+	/**
+	* <p>Runs a task on a pool and waits for it. A task of the same pool runs the
+	* new task itself, instead of blocking on it while another worker takes it.</p>
+	* @param pool The pool to run the task on
+	* @param task The task to run
+	*/
+	public static void invoke(ForkJoinPool pool, ForkJoinTask<?> task){
+		if(ForkJoinTask.getPool() == pool){
+			task.invoke();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
 	///////////////////////// Printing Methods /////////////////////////
 	/**
 	* Print the ArrayList of Attribte objects in a neat manner.
@@ -189,6 +264,17 @@ class SortFDs implements Comparator<FunctionalDependency>{
 	}
 }
 
+/**
+ * The helper class to provide the sortFunctionalDependencyByBitmask method with a comparator method
+ * @see Utils#sortFunctionalDependencyByBitmask
+ */
+class SortFDsByBitmask implements Comparator<FunctionalDependency>{
+	public int compare(FunctionalDependency a, FunctionalDependency b){
+		int c = new AttributeSet(a.getLeftSideAttributes()).compareTo(new AttributeSet(b.getLeftSideAttributes()));
+		return (c != 0) ? c : new AttributeSet(a.getRightSideAttributes()).compareTo(new AttributeSet(b.getRightSideAttributes()));
+	}
+}
+
 /**
  * The helper class to provide the sortClosure method with a comparator method
  * @author Karthik Rangasai
@@ -198,4 +284,28 @@ class SortClosure implements Comparator<Closure>{
 	public int compare(Closure a, Closure b){
 		return Utils.stringifyAttributeList(a.getLeftSide()).compareTo(Utils.stringifyAttributeList(b.getLeftSide()));
 	}
-}
\ No newline at end of file
+}
+
+/**
+ * The helper class to provide the sortKeys method with a comparator method
+ * @see Utils#sortKeys
+ */
+class SortAttrListByName implements Comparator<ArrayList<Attribute>>{
+	public int compare(ArrayList<Attribute> a, ArrayList<Attribute> b){
+		return Utils.stringifyAttributeList(a).compareTo(Utils.stringifyAttributeList(b));
+	}
+}
+
+/**
+ * The helper class to provide the sortKeys method with a comparator method
+ * ordering keys by the length of their printed form
+ * @author Karthik Rangasai
+ * @see Utils#sortKeys
+ */
+class SortAttrList implements Comparator<ArrayList<Attribute>>{
+	public int compare(ArrayList<Attribute> a, ArrayList<Attribute> b){
+		String superKey_A = Utils.stringifyAttributeList(a);
+		String superKey_B = Utils.stringifyAttributeList(b);
+		return superKey_A.length() - superKey_B.length();
+	}
+}
@@ -0,0 +1,36 @@
+package benchmarks;
+
+import RelationalDatabase.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the closure computations of the Closure class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClosureBenchmark{
+
+	/**
+	* Closure.computeClosure of the LHS of every FD.
+	*/
+	@Benchmark
+	public void computeClosure(SchemaState schema, Blackhole bh){
+		for(ArrayList<Attribute> left : schema.leftSides){
+			bh.consume(Closure.computeClosure(left, schema.functionalDependencies));
+		}
+	}
+
+	/**
+	* Closure.equivalentClosures of the FDs and their Minimal Cover.
+	*/
+	@Benchmark
+	public boolean equivalentClosures(SchemaState schema){
+		return Closure.equivalentClosures(schema.functionalDependencies, schema.minimalCover);
+	}
+}
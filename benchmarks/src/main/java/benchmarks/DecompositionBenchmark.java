@@ -0,0 +1,58 @@
+package benchmarks;
+
+import RelationalDatabase.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the decompositions of the Decompositions class. The decompositions
+ * change the FDs they are given, so every invocation decomposes a relation of
+ * it's own. A pool of analysed relations is built before every iteration, and
+ * the iteration decomposes each of them once, so only the decompositions are
+ * measured. The score is the time to decompose the whole pool.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = DecompositionBenchmark.POOL_SIZE)
+@Measurement(iterations = 5, batchSize = DecompositionBenchmark.POOL_SIZE)
+@Fork(1)
+@State(Scope.Thread)
+public class DecompositionBenchmark{
+	/**
+	* The number of relations an iteration decomposes.
+	*/
+	static final int POOL_SIZE = 1000;
+	/**
+	* The analysed relations of the iteration.
+	*/
+	private ArrayList<Relation> relations;
+	/**
+	* The position of the next relation to decompose.
+	*/
+	private int next;
+
+	@Setup(Level.Iteration)
+	public void setUp(SchemaState schema){
+		this.relations = new ArrayList<Relation>();
+		for(int i=0; i<POOL_SIZE; i++){
+			this.relations.add(schema.newAnalyzedRelation());
+		}
+		this.next = 0;
+	}
+
+	@Benchmark
+	public ArrayList<Relation> decomposeInto2NFScheme(){
+		return Decompositions.decomposeInto2NFScheme(this.relations.get(this.next++));
+	}
+
+	@Benchmark
+	public ArrayList<Relation> decomposeInto3NFScheme(){
+		return Decompositions.decomposeInto3NFScheme(this.relations.get(this.next++));
+	}
+
+	@Benchmark
+	public ArrayList<Relation> decomposeIntoBCNFScheme(){
+		return Decompositions.decomposeIntoBCNFScheme(this.relations.get(this.next++));
+	}
+}
@@ -0,0 +1,24 @@
+package benchmarks;
+
+import RelationalDatabase.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks Relation.computeMinimalCover. Each invocation works on a new
+ * Relation so closures cached by an earlier invocation are not reused.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinimalCoverBenchmark{
+
+	@Benchmark
+	public Relation computeMinimalCover(SchemaState schema){
+		Relation r = schema.newRelation();
+		r.computeMinimalCover();
+		return r;
+	}
+}
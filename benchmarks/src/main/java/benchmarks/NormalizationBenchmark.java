@@ -0,0 +1,28 @@
+package benchmarks;
+
+import RelationalDatabase.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks normalizing a relation all the way to BCNF, with the relations
+ * of every level of the decomposition decomposed on a pool of the given
+ * parallelism. A parallelism of 1 is the sequential baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NormalizationBenchmark{
+	@Param({"1", "2", "4"})
+	public int parallelism;
+
+	@Benchmark
+	public Relation normalizeRelationInParallel(SchemaState schema){
+		Relation r = schema.newRelation();
+		r.normalizeRelationInParallel(this.parallelism);
+		return r;
+	}
+}
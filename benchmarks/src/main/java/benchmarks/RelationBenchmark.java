@@ -0,0 +1,33 @@
+package benchmarks;
+
+import RelationalDatabase.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks creating a Relation from the CLI input and analysing it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelationBenchmark{
+
+	/**
+	* The Relation(String, int, String) constructor, which only parses the input.
+	*/
+	@Benchmark
+	public Relation construct(SchemaState schema){
+		return schema.newRelation();
+	}
+
+	/**
+	* The constructor followed by the keys, normal form, minimal cover and full
+	* and partial FDs, everything the constructor used to compute eagerly.
+	*/
+	@Benchmark
+	public Relation constructAndAnalyze(SchemaState schema){
+		return schema.newAnalyzedRelation();
+	}
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import RelationalDatabase.*;
+import java.util.*;
+
+/**
+ * The SchemaGenerator builds reproducible random relations in the input
+ * format of the CLI for the benchmarks.
+ */
+public final class SchemaGenerator{
+
+	private SchemaGenerator() {
+		throw new RuntimeException("You should not instantiate this class");
+	}
+
+	/**
+	* Generates a relation R(A,B,...) of upto 26 single letter attributes with n * density FDs. Every FD has
+	* 1 to 3 attributes on the LHS and 1 or 2 different attributes on the RHS.
+	* @param noOfAttr The number of attributes.
+	* @param density The number of FDs per attribute.
+	* @param seed The seed of the random generator.
+	* @return The relation string and the FD string.
+	*/
+	public static String[] generate(int noOfAttr, double density, long seed){
+		if(noOfAttr < 2 || noOfAttr > 26){
+			throw new IllegalArgumentException("The number of attributes must be between 2 and 26");
+		}
+		Random random = new Random(seed);
+		StringBuilder relation = new StringBuilder("R(");
+		for(int i=1; i<=noOfAttr; i++){
+			relation.append((char)('A' + i - 1) + ",");
+		}
+		relation.setCharAt(relation.length() - 1, ')');
+
+		int noOfFDs = Math.max(1, (int)Math.round(noOfAttr * density));
+		StringBuilder funcDeps = new StringBuilder();
+		ArrayList<Integer> order = new ArrayList<Integer>();
+		for(int i=1; i<=noOfAttr; i++){
+			order.add(i);
+		}
+		for(int f=0; f<noOfFDs; f++){
+			Collections.shuffle(order, random);
+			int left = 1 + random.nextInt(Math.min(3, noOfAttr - 1));
+			int right = 1 + random.nextInt(Math.min(2, noOfAttr - left));
+			if(funcDeps.length() > 0){
+				funcDeps.append(";");
+			}
+			funcDeps.append(SchemaGenerator.join(order.subList(0, left)));
+			funcDeps.append("->");
+			funcDeps.append(SchemaGenerator.join(order.subList(left, left + right)));
+		}
+		return new String[]{relation.toString(), funcDeps.toString()};
+	}
+
+	/**
+	* Creates a relation and computes everything the decompositions read.
+	* @param schema The relation string and the FD string.
+	* @param noOfAttr The number of attributes.
+	* @return The analysed Relation.
+	*/
+	public static Relation analyze(String[] schema, int noOfAttr){
+		Relation r = new Relation(schema[0], noOfAttr, schema[1]);
+		r.getNormalForm();
+		r.getMinimalCover();
+		r.getFullFunctionalDependencies();
+		return r;
+	}
+
+	/**
+	* Joins attribute numbers into a comma separated list of letters.
+	*/
+	private static String join(List<Integer> attributes){
+		StringBuilder s = new StringBuilder();
+		for(int a : attributes){
+			s.append((char)('A' + a - 1) + ",");
+		}
+		s.deleteCharAt(s.length() - 1);
+		return s.toString();
+	}
+}
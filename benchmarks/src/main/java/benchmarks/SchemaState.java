@@ -0,0 +1,69 @@
+package benchmarks;
+
+import RelationalDatabase.*;
+import java.util.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The SchemaState holds the generated relation every benchmark runs on,
+ * parameterized by the number of attributes and the number of FDs per attribute.
+ */
+@State(Scope.Benchmark)
+public class SchemaState{
+	@Param({"8", "12", "16"})
+	public int noOfAttr;
+
+	@Param({"0.5", "1.0", "2.0"})
+	public double density;
+
+	/**
+	* The relation string, eg: R(A,B,C).
+	*/
+	public String relation;
+	/**
+	* The FD string, eg: A->B;B->C.
+	*/
+	public String funcDeps;
+	/**
+	* The FDs of the relation.
+	*/
+	public ArrayList<FunctionalDependency> functionalDependencies;
+	/**
+	* The Minimal Cover of the relation.
+	*/
+	public ArrayList<FunctionalDependency> minimalCover;
+	/**
+	* The LHS of every FD, whose closures are computed.
+	*/
+	public ArrayList<ArrayList<Attribute>> leftSides;
+
+	@Setup(Level.Trial)
+	public void setUp(){
+		String[] schema = SchemaGenerator.generate(this.noOfAttr, this.density, 42);
+		this.relation = schema[0];
+		this.funcDeps = schema[1];
+		Relation r = this.newRelation();
+		this.functionalDependencies = r.getFunctionalDependencies();
+		this.minimalCover = r.getMinimalCover();
+		this.leftSides = new ArrayList<ArrayList<Attribute>>();
+		for(FunctionalDependency f : this.functionalDependencies){
+			this.leftSides.add(f.getLeftSideAttributes());
+		}
+	}
+
+	/**
+	* Parses the generated relation into a new Relation with nothing computed yet.
+	* @return A new Relation
+	*/
+	public Relation newRelation(){
+		return new Relation(this.relation, this.noOfAttr, this.funcDeps);
+	}
+
+	/**
+	* Parses the generated relation and computes everything the decompositions read.
+	* @return A new Relation
+	*/
+	public Relation newAnalyzedRelation(){
+		return SchemaGenerator.analyze(new String[]{this.relation, this.funcDeps}, this.noOfAttr);
+	}
+}